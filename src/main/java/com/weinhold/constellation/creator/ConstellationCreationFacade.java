@@ -1,14 +1,41 @@
 package com.weinhold.constellation.creator;
 
-import java.io.File;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNullElse;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toSet;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.weinhold.constellation.creator.files.model.FileCreationInput;
 import com.weinhold.constellation.creator.files.zip.ZipFileCreatorService;
+import com.weinhold.constellation.creator.history.PairCountWriter;
+import com.weinhold.constellation.creator.model.CreatedConstellation;
+import com.weinhold.constellation.creator.model.FairnessSummary;
+import com.weinhold.constellation.creator.model.ScheduleOptions;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.creator.solver.PairConstraint;
+import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
 import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.persistence.model.Constellation;
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.PackedRound;
+import com.weinhold.constellation.persistence.model.Person;
 import com.weinhold.constellation.rest.model.ConstellationInput;
+import com.weinhold.constellation.rest.model.ReplanInput;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,30 +49,304 @@ public class ConstellationCreationFacade {
     private final ConstellationEntryCreationFacade constellationEntryCreationFacade;
     private final DateCreationFacade dateCreationFacade;
     private final ZipFileCreatorService zipFileCreatorService;
+    private final ConstellationDatabaseFacade constellationDatabaseFacade;
+    private final TeamHistoryFacade teamHistoryFacade;
+    private final ConstellationStorageProperties storageProperties;
+    private final ConstellationStorageFacade constellationStorageFacade;
 
     /**
-     * Creates a constellation file based on the provided input and constellation ID.
+     * Creates a constellation file based on the provided input and constellation ID. With a team key the pairs start
+     * from how often they met in the earlier constellations of the team, and the new meetings are added to them. The
+     * constellation is solved and exported without a transaction, only then are people and entries inserted in batches
+     * within one short transaction, together with the header of the constellation. Until then the rounds are held
+     * packed like in the table, a few bytes per member. In seed-only mode the entries of a reproducible constellation
+     * are not stored, its header holds the seed to regenerate them from.
      *
      * @param input the input containing people, number of groups, year, and rotation
      * @param constellationId the unique identifier for the constellation
-     * @return the created constellation file
+     * @return the created constellation file and how evenly its pairs met
      */
-    public File createConstellationFile(ConstellationInput input, UUID constellationId) {
+    public CreatedConstellation createConstellationFile(ConstellationInput input, UUID constellationId) {
         var groupSize = Math.max(2, input.getPeople().size() / Math.max(1, input.getNumberOfGroups()));
 
-        var people =
-            input.getPeople().stream().map(personName -> personDatabaseFacade.savePerson(constellationId, personName)).toList();
+        var people = PersonDatabaseFacade.newPeople(constellationId, input.getPeople(), 0);
 
         var dates = dateCreationFacade.buildDatesForYear(input.getYear(), input.getRotation());
 
-        var schedule = constellationEntryCreationFacade.scheduleGroups(people, groupSize, dates.size(), constellationId);
+        var options = ScheduleOptions.builder()
+                                     .window(input.getWindow())
+                                     .timeBudget(input.getTimeBudgetMillis() == null ? null
+                                         : Duration.ofMillis(input.getTimeBudgetMillis()))
+                                     .pairCounts(input.getTeamKey() == null ? null
+                                         : teamHistoryFacade.loadPairCounts(input.getTeamKey(), people))
+                                     .constraints(constraintsOf(input))
+                                     .attributes(attributesOf(input))
+                                     .diversityWeight(input.getDiversityWeight())
+                                     .strategy(input.getStrategy())
+                                     .build();
+        var seedOnly = storageProperties.isSeedOnly() && constellationEntryCreationFacade.isReproducible(options);
+        if (seedOnly) {
+            // a read has to solve the same rounds on any instance, whatever its parallelism and configuration
+            constellationEntryCreationFacade.pinReproducible(people.size(), groupSize, dates.size(), options);
+        }
+        // the statistics sheet counts the pairs for the fairness summary and the team history as well
+        var pairCounter = new PairCountWriter(people);
         var fileCreationInput = FileCreationInput.builder()
                                                  .constellationId(constellationId)
                                                  .year(input.getYear())
                                                  .people(people)
                                                  .dates(dates)
-                                                 .entries(schedule)
+                                                 .pairCounter(pairCounter)
+                                                 .build();
+        // rounds are exported while the later ones are still being solved
+        var writer = zipFileCreatorService.open(fileCreationInput);
+        var ordinalById = ConstellationDatabaseFacade.ordinalById(people);
+        var rounds = new ArrayList<PackedRound>(); // packed like in the table and inserted once the export is done
+        constellationEntryCreationFacade.generateGroups(people, groupSize, dates.size(), constellationId, options)
+                                        .forEach(round -> {
+                                            writer.write(round);
+                                            if (!seedOnly) {
+                                                rounds.add(ConstellationDatabaseFacade.pack(round.getEntries(),
+                                                    ordinalById));
+                                            }
+                                        });
+        var file = writer.finish();
+        var pairCounts = input.getTeamKey() == null ? null : pairCounter.finish();
+        var fairness = pairCounter.summary();
+        var constellation = Constellation.builder()
+                                         .id(constellationId)
+                                         .year(input.getYear())
+                                         .rotation(input.getRotation())
+                                         .groupSize(groupSize)
+                                         .rounds(dates.size())
+                                         .window(options.getWindow())
+                                         .seed(options.getSeed())
+                                         .strategy(options.getStrategy())
+                                         .restarts(options.getRestarts())
+                                         .localSearchMoves(options.getLocalSearchMoves())
+                                         .blockSize(options.getBlockSize())
+                                         .storedRounds(!seedOnly)
+                                         .build();
+        setFairness(constellation, fairness);
+        constellationStorageFacade.storeConstellation(constellation, people, rounds, input.getTeamKey(), pairCounts);
+        log.info("Constellation {} created{}: {}", constellationId, seedOnly ? " without stored rounds" : "", fairness);
+        return new CreatedConstellation(file, fairness);
+    }
+
+    /**
+     * Finds how evenly the pairs of a constellation met when it was created.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @return the fairness summary, empty if the constellation is unknown or older than the headers
+     */
+    public Optional<FairnessSummary> findFairness(UUID constellationId) {
+        return constellationDatabaseFacade.findConstellation(constellationId)
+                                          .map(ConstellationCreationFacade::fairnessOf);
+    }
+
+    /**
+     * Exports the files of a constellation again as a ZIP file written straight to the given output. Stored rounds
+     * are read from a database cursor within a read-only transaction. The rounds of a seed-only constellation are
+     * regenerated from its header without reading any entries and without a transaction, usually from the schedule
+     * cache. Either way every round is written as soon as it is read, only the workbook is kept until the end.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @param out the output to write the ZIP file to, finished but not closed
+     * @throws IllegalArgumentException if the constellation is unknown or older than the headers
+     */
+    public void exportConstellationFile(UUID constellationId, OutputStream out) {
+        var constellation = constellationDatabaseFacade.findConstellation(constellationId)
+                                                       .orElseThrow(() -> new IllegalArgumentException(
+                                                           "Unknown constellation " + constellationId));
+        var people = personDatabaseFacade.findAllPeopleOfConstellation(constellationId);
+        var fileCreationInput = FileCreationInput.builder()
+                                                 .constellationId(constellationId)
+                                                 .year(constellation.getYear())
+                                                 .people(people)
+                                                 .dates(dateCreationFacade.buildDatesForYear(constellation.getYear(),
+                                                     constellation.getRotation()))
                                                  .build();
-        return zipFileCreatorService.createFile(fileCreationInput);
+        var writer = zipFileCreatorService.open(fileCreationInput, out);
+        if (constellation.isStoredRounds()) {
+            constellationStorageFacade.forEachStoredRound(constellationId, people, writer::write);
+        } else {
+            try (var rounds = regenerate(constellation, people)) {
+                rounds.forEach(writer::write);
+            }
+        }
+        writer.finish();
+        log.info("Constellation {} exported from {}", constellationId,
+                 constellation.isStoredRounds() ? "its stored rounds" : "seed " + constellation.getSeed());
+    }
+
+    /**
+     * Re-plans a constellation after people joined or left. The rounds before the effective round stay as they are and
+     * are the pair history of the new rounds, only the entries from the effective round on are replaced. The team and
+     * the number of groups are the ones of the effective round. The rounds of a seed-only constellation are stored from
+     * then on, as the new rounds no longer follow from the seed.
+     * <p>
+     * The rounds are read and solved without a transaction. Only then are the people who joined inserted and the
+     * rounds replaced in one short transaction, together with the header and its statistics of all rounds. The history
+     * of the team the constellation was created for is left as it was, the header does not know the team.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @param input the input containing the effective round and the people who join or leave
+     * @throws IllegalArgumentException if the constellation, the round or a leaving person is unknown
+     */
+    public void replanConstellation(UUID constellationId, ReplanInput input) {
+        var everyone = personDatabaseFacade.findAllPeopleOfConstellation(constellationId);
+        var header = constellationDatabaseFacade.findConstellation(constellationId);
+        var seedOnly = header.filter(constellation -> !constellation.isStoredRounds()).isPresent();
+        List<ConstellationEntry> entries;
+        if (seedOnly) {
+            try (var regenerated = regenerate(header.get(), everyone)) {
+                entries = regenerated.flatMap(round -> round.getEntries().stream()).toList();
+            }
+        } else {
+            entries = constellationDatabaseFacade.findAllEntriesOfConstellation(constellationId, everyone);
+        }
+        var rounds = entries.stream().mapToInt(ConstellationEntry::getRoundNumber).max()
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown constellation " + constellationId));
+        var fromRound = input.getEffectiveRound();
+        if (fromRound > rounds) {
+            throw new IllegalArgumentException(format("Effective round must be %s or earlier", rounds));
+        }
+        var effectiveEntries = entries.stream().filter(entry -> entry.getRoundNumber() == fromRound).toList();
+        var memberIds = effectiveEntries.stream().flatMap(entry -> entry.getPersonIds().stream()).collect(toSet());
+        var team = everyone.stream().filter(person -> memberIds.contains(person.getId()))
+                           .collect(toCollection(ArrayList::new));
+
+        for (var name : requireNonNullElse(input.getRemovedPeople(), List.<String>of())) {
+            var leaving = team.stream().filter(person -> person.getName().equals(name)).findFirst()
+                              .orElseThrow(() -> new IllegalArgumentException(
+                                  format("%s is not part of round %s", name, fromRound)));
+            team.remove(leaving);
+        }
+        var added = requireNonNullElse(input.getAddedPeople(), List.<String>of());
+        if (team.size() + added.size() < 4) {
+            throw new IllegalArgumentException("At least 4 people are required");
+        }
+        var joining = PersonDatabaseFacade.newPeople(constellationId, added, everyone.size());
+        team.addAll(joining);
+        var allPeople = Stream.concat(everyone.stream(), joining.stream()).toList();
+
+        var groupSize = Math.max(2, team.size() / Math.max(1, effectiveEntries.size()));
+        var pastEntries = entries.stream().filter(entry -> entry.getRoundNumber() < fromRound).toList();
+        var options = ScheduleOptions.builder()
+                                     .window(input.getWindow())
+                                     .timeBudget(input.getTimeBudgetMillis() == null ? null
+                                         : Duration.ofMillis(input.getTimeBudgetMillis()))
+                                     .build();
+        var ordinalById = ConstellationDatabaseFacade.ordinalById(allPeople);
+        var pairCounter = new PairCountWriter(allPeople);
+        var replaced = new ArrayList<PackedRound>(); // replace the stored rounds from the first of them on
+        for (var round : ScheduleRound.of(pastEntries)) {
+            pairCounter.write(round);
+            if (seedOnly) {
+                replaced.add(ConstellationDatabaseFacade.pack(round.getEntries(), ordinalById));
+            }
+        }
+        constellationEntryCreationFacade.generateReplannedGroups(team, groupSize, pastEntries, fromRound,
+            rounds - fromRound + 1, constellationId, options).forEach(round -> {
+                pairCounter.write(round);
+                replaced.add(ConstellationDatabaseFacade.pack(round.getEntries(), ordinalById));
+            });
+        header.ifPresent(constellation -> {
+            constellation.setStoredRounds(true);
+            setFairness(constellation, pairCounter.summary());
+        });
+        constellationStorageFacade.replaceRounds(constellationId, header.orElse(null), joining, replaced);
+        log.info("Constellation {} re-planned from round {}: {}", constellationId, fromRound, pairCounter.summary());
+    }
+
+    /**
+     * Deletes the people, the entries and the header of a constellation in one transaction, each with a single
+     * statement.
+     *
+     * @param constellationId the unique identifier for the constellation
+     */
+    @Transactional
+    public void deleteConstellation(UUID constellationId) {
+        personDatabaseFacade.deleteAllPeopleOfConstellation(constellationId);
+        constellationDatabaseFacade.deleteAllEntriesOfConstellation(constellationId);
+        constellationDatabaseFacade.deleteConstellation(constellationId);
+    }
+
+    /**
+     * @return the rounds of a seed-only constellation in round order, regenerated from the seed and the solver settings
+     *         pinned in its header; to be closed by the caller
+     */
+    private Stream<ScheduleRound> regenerate(Constellation constellation, List<Person> people) {
+        var options = ScheduleOptions.builder()
+                                     .seed(constellation.getSeed())
+                                     .window(constellation.getWindow())
+                                     .strategy(constellation.getStrategy())
+                                     .restarts(constellation.getRestarts())
+                                     .localSearchMoves(constellation.getLocalSearchMoves())
+                                     .blockSize(constellation.getBlockSize())
+                                     .build();
+        return constellationEntryCreationFacade.generateGroups(people, constellation.getGroupSize(),
+            constellation.getRounds(), constellation.getId(), options);
+    }
+
+    private static void setFairness(Constellation constellation, FairnessSummary fairness) {
+        constellation.setPairs(fairness.getPairs());
+        constellation.setMinPairCount(fairness.getMinPairCount());
+        constellation.setMaxPairCount(fairness.getMaxPairCount());
+        constellation.setMeanPairCount(fairness.getMeanPairCount());
+        constellation.setPairCountVariance(fairness.getPairCountVariance());
+        constellation.setNeverMetPairs(fairness.getNeverMetPairs());
+    }
+
+    private static FairnessSummary fairnessOf(Constellation constellation) {
+        return FairnessSummary.builder()
+                              .pairs(constellation.getPairs())
+                              .minPairCount(constellation.getMinPairCount())
+                              .maxPairCount(constellation.getMaxPairCount())
+                              .meanPairCount(constellation.getMeanPairCount())
+                              .pairCountVariance(constellation.getPairCountVariance())
+                              .neverMetPairs(constellation.getNeverMetPairs())
+                              .build();
+    }
+
+    /**
+     * @return the constraints of the input on the indices of the people, which are saved in the order of the input
+     */
+    private static List<PairConstraint> constraintsOf(ConstellationInput input) {
+        if (input.getConstraints() == null) {
+            return null;
+        }
+        var people = input.getPeople();
+        return input.getConstraints().stream()
+                    .map(constraint -> new PairConstraint(people.indexOf(constraint.getFirst()),
+                        people.indexOf(constraint.getSecond()), requireNonNullElse(constraint.getFromRound(), 1),
+                        requireNonNullElse(constraint.getToRound(), Integer.MAX_VALUE)))
+                    .toList();
+    }
+
+    /**
+     * Numbers the values of every attribute in the order the people are given, so the same input always gives the same
+     * indices.
+     *
+     * @return the value index of every person per attribute name in alphabetical order, -1 if a person has no value
+     */
+    private static int[][] attributesOf(ConstellationInput input) {
+        if (input.getAttributes() == null || input.getAttributes().isEmpty()) {
+            return null;
+        }
+        var people = input.getPeople();
+        var names = input.getAttributes().values().stream().filter(Objects::nonNull)
+                         .flatMap(attributes -> attributes.keySet().stream()).collect(toCollection(TreeSet::new));
+        var attributes = new int[names.size()][people.size()];
+        var a = 0;
+        for (var name : names) {
+            var values = new HashMap<String, Integer>();
+            for (var p = 0; p < people.size(); p++) {
+                var value = requireNonNullElse(input.getAttributes().get(people.get(p)), Map.<String, String>of()).get(name);
+                attributes[a][p] = value == null ? -1 : values.computeIfAbsent(value, v -> values.size());
+            }
+            a++;
+        }
+        return attributes;
     }
 }
@@ -1,23 +1,33 @@
 package com.weinhold.constellation.creator;
 
-import static java.lang.Math.max;
-import static java.lang.Math.min;
-import static java.util.stream.Collectors.joining;
+import static java.util.Objects.requireNonNullElse;
+import static java.util.stream.Collectors.toCollection;
 
-import java.util.ArrayDeque;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.Set;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Component;
 
+import com.weinhold.constellation.creator.model.ScheduleOptions;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.ScheduleSolver;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.cache.ScheduleCache;
+import com.weinhold.constellation.creator.solver.cache.ScheduleShape;
+import com.weinhold.constellation.creator.solver.library.ScheduleLibrary;
+import com.weinhold.constellation.creator.solver.strategy.ExactStrategy;
 import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
 import com.weinhold.constellation.persistence.model.Person;
@@ -30,18 +40,16 @@ import lombok.extern.slf4j.Slf4j;
 @AllArgsConstructor
 public class ConstellationEntryCreationFacade {
 
-    // ---- Tunable penalties ----
-    private static final int PENALTY_HISTORY = 10; // weight for historic pair count
-    private static final int PENALTY_RECENT = 1000; // big penalty if pair met in recent window
-    private static final int PENALTY_SIZE_SKEW = 2; // gentle push to fill groups evenly
-
-    private static final int window = 3; // "no-repeat" window (pairs met in the last `window` rounds are penalized heavily)
-    private static final int restarts = 200; // randomized restarts to hunt for a better schedule (e.g., 200)
+    private static final int ROUND_BATCH_MEMBERS = 10_000; // members buffered before their rounds are inserted
 
     private final ConstellationDatabaseFacade constellationDatabaseFacade;
+    private final ScheduleSolver scheduleSolver;
+    private final SolverProperties solverProperties;
+    private final ScheduleLibrary scheduleLibrary;
+    private final ScheduleCache scheduleCache;
 
     /**
-     * Generate group schedules that maximize variation (fewest repeated pairings).
+     * Generate group schedules that maximize variation (fewest repeated pairings) with the configured defaults.
      *
      * @param people list of unique participant IDs
      * @param groupSize target group size (will balance to ±1 if not divisible)
@@ -50,241 +58,307 @@ public class ConstellationEntryCreationFacade {
      * @return all constellation entries created for this run
      */
     public List<ConstellationEntry> scheduleGroups(List<Person> people, int groupSize, int rounds, UUID constellationId) {
-        if (people.isEmpty()) {
-            return List.of();
-        }
-        var rng = new Random();
-        var targetSizes = computeTargetSizes(people.size(), groupSize);
-
-        List<List<List<UUID>>> bestSchedule = null;
-        var bestScore = Long.MAX_VALUE;
-
-        for (var r = 0; r < max(1, restarts); r++) {
-            var result = tryOneRestart(people, targetSizes, rounds, rng);
-            if (result == null) {
-                continue;
-            }
-            if (result.finalScore < bestScore) {
-                bestScore = result.finalScore;
-                bestSchedule = result.schedule;
-            }
-        }
-        if (bestSchedule == null) {
-            throw new IllegalStateException("Failed to build a schedule");
-        }
-        return persistSchedule(bestSchedule, constellationId);
+        return scheduleGroups(people, groupSize, rounds, constellationId, new ScheduleOptions());
     }
 
-    private List<Integer> computeTargetSizes(int n, int groupSize) {
-        var groups = (int) Math.ceil(n / (double) groupSize);
-        var base = n / groups;
-        var extra = n % groups;
+    /**
+     * Generate group schedules that maximize variation (fewest repeated pairings).
+     *
+     * @param people list of unique participant IDs
+     * @param groupSize target group size (will balance to ±1 if not divisible)
+     * @param rounds number of rounds to schedule
+     * @param constellationId unique identifier for this scheduling constellation
+     * @param options per-request settings, unset values fall back to the solver configuration
+     * @return all constellation entries created for this run
+     * @see #streamGroups(List, int, int, UUID, ScheduleOptions)
+     */
+    public List<ConstellationEntry> scheduleGroups(List<Person> people, int groupSize, int rounds, UUID constellationId,
+        ScheduleOptions options) {
+        return streamGroups(people, groupSize, rounds, constellationId, options).flatMap(round -> round.getEntries().stream())
+                                                                                .collect(toCollection(ArrayList::new));
+    }
 
-        var sizes = new ArrayList<Integer>(groups);
-        for (var i = 0; i < groups; i++) {
-            sizes.add(base + (i < extra ? 1 : 0));
-        }
-        return sizes;
+    /**
+     * Generate group schedules that maximize variation (fewest repeated pairings) round by round.
+     * Schedules are looked up by shape in the precomputed library and the cache first, so a known shape is only mapped
+     * onto the people. All other shapes and schedules continuing carried over pair counts are solved, see
+     * {@link ScheduleSolver#solveRounds(SolverProblem, Duration, String)}.
+     * Rounds are persisted in batches as the stream reaches them, so consumers can export a round before later rounds
+     * exist.
+     *
+     * @param people list of unique participant IDs
+     * @param groupSize target group size (will balance to ±1 if not divisible)
+     * @param rounds number of rounds to schedule
+     * @param constellationId unique identifier for this scheduling constellation
+     * @param options per-request settings, unset values fall back to the solver configuration
+     * @return the rounds created for this run in round order, to be consumed once
+     */
+    public Stream<ScheduleRound> streamGroups(List<Person> people, int groupSize, int rounds, UUID constellationId,
+        ScheduleOptions options) {
+        return streamGroups(people, groupSize, rounds, constellationId, options, true);
     }
 
-    private Result tryOneRestart(List<Person> people, List<Integer> targetSizes, int rounds, Random rng) {
-        var n = people.size();
-        var indexById = indexById(people);
-        var pairCnt = new int[n][n];
-        var recent = new ArrayDeque<Set<Long>>(max(1, window));
-        var schedule = new ArrayList<List<List<UUID>>>(rounds);
-        var totalScore = 0L;
+    /**
+     * Generates group schedules like {@link #streamGroups(List, int, int, UUID, ScheduleOptions)} without persisting
+     * them, for constellations whose rounds are not stored. With the options a
+     * {@linkplain #isReproducible(ScheduleOptions) reproducible} constellation was pinned to by
+     * {@link #pinReproducible(int, int, int, ScheduleOptions)} when it was created, the same rounds are solved again on
+     * any instance.
+     *
+     * @param people the people of the constellation in the order they were saved
+     * @param groupSize target group size (will balance to ±1 if not divisible)
+     * @param rounds number of rounds to schedule
+     * @param constellationId unique identifier for this scheduling constellation
+     * @param options the settings the constellation was created with, including its seed and pinned solver settings
+     * @return the rounds of the constellation in round order, to be consumed once
+     */
+    public Stream<ScheduleRound> generateGroups(List<Person> people, int groupSize, int rounds, UUID constellationId,
+        ScheduleOptions options) {
+        return streamGroups(people, groupSize, rounds, constellationId, options, false);
+    }
 
-        for (var r = 0; r < rounds; r++) {
-            var round = buildRound(people, targetSizes, indexById, pairCnt, recent, rng);
-            if (!round.success) {
-                return null;
-            }
-            totalScore += round.deltaScore;
-            updateHistory(round.groups, indexById, pairCnt, recent);
-            schedule.add(round.groups);
+    private Stream<ScheduleRound> streamGroups(List<Person> people, int groupSize, int rounds, UUID constellationId,
+        ScheduleOptions options, boolean persist) {
+        if (people.isEmpty()) {
+            return Stream.empty();
         }
-
-        var imbalance = pairImbalance(pairCnt);
-        var finalScore = totalScore * 1000 + imbalance; // base score dominates, imbalance tie-breaks
-        return new Result(schedule, finalScore);
+        var problem = problemOf(people.size(), groupSize, rounds, options);
+        log.debug("Scheduling {} people for {} rounds with window {} and seed {}", people.size(), rounds,
+                  problem.getWindow(), problem.getSeed());
+        var shape = ScheduleShape.of(problem, options.getSeed() != null || solverProperties.getSeed() != null,
+            options.getStrategy());
+        return scheduleRounds(roundSource(problem, shape, constellationId, options), problem, 1, people, constellationId,
+            persist);
     }
 
-    private Map<UUID, Integer> indexById(List<Person> people) {
-        var map = new HashMap<UUID, Integer>(people.size() * 2);
-        for (var i = 0; i < people.size(); i++) {
-            map.put(people.get(i).getId(), i);
+    /**
+     * Pins everything the schedule of a {@linkplain #isReproducible(ScheduleOptions) reproducible} constellation
+     * depends on into its options: the seed, the window, the strategy the selector picks now and the solver settings
+     * the strategies read. The selection depends on the parallelism and the cost model of this instance, so it is
+     * forced rather than repeated when the schedule is regenerated. The schedule is cached under a key holding the
+     * forced strategy and the pinned settings, so repeated reads are served from the cache instead of solving again.
+     *
+     * @param peopleCount number of people
+     * @param groupSize target group size
+     * @param rounds number of rounds to schedule
+     * @param options the settings of the schedule, completed in place
+     */
+    void pinReproducible(int peopleCount, int groupSize, int rounds, ScheduleOptions options) {
+        options.setSeed(resolveSeed(options));
+        options.setWindow(requireNonNullElse(options.getWindow(), solverProperties.getWindow()));
+        options.setRestarts(requireNonNullElse(options.getRestarts(), solverProperties.getRestarts()));
+        options.setLocalSearchMoves(requireNonNullElse(options.getLocalSearchMoves(),
+            solverProperties.getLocalSearchMoves()));
+        options.setBlockSize(requireNonNullElse(options.getBlockSize(), solverProperties.getBlockSize()));
+        if (options.getStrategy() == null) {
+            var problem = problemOf(peopleCount, groupSize, rounds, options);
+            options.setStrategy(scheduleSolver.selectStrategy(problem, null));
         }
-        return map;
     }
 
-    private Round buildRound(List<Person> people, List<Integer> targetSizes, Map<UUID, Integer> indexById, int[][] pairCnt,
-        Deque<Set<Long>> recent, Random rng) {
-        var groups = targetSizes.size();
+    /**
+     * Re-plans the rounds from {@code fromRound} on after people joined or left. The pairs met in the past rounds are
+     * replayed into the pair history, so only the remaining rounds are solved and they continue the variation of the
+     * played ones. Entries of people no longer in {@code people} only count as history of the others.
+     *
+     * @param people the team from {@code fromRound} on
+     * @param groupSize target group size (will balance to ±1 if not divisible)
+     * @param pastEntries entries of the rounds before {@code fromRound}
+     * @param fromRound 1-based number of the first round to plan
+     * @param rounds number of rounds to plan
+     * @param constellationId unique identifier for this scheduling constellation
+     * @param options per-request settings, unset values fall back to the solver configuration
+     * @return the constellation entries created for the planned rounds
+     */
+    public List<ConstellationEntry> replanGroups(List<Person> people, int groupSize, List<ConstellationEntry> pastEntries,
+        int fromRound, int rounds, UUID constellationId, ScheduleOptions options) {
+        return replanGroups(people, groupSize, pastEntries, fromRound, rounds, constellationId, options, true)
+            .flatMap(round -> round.getEntries().stream())
+            .collect(toCollection(ArrayList::new));
+    }
 
-        var pool = new ArrayList<>(people);
-        Collections.shuffle(pool, rng);
+    /**
+     * Re-plans the rounds like {@link #replanGroups(List, int, List, int, int, UUID, ScheduleOptions)} without
+     * persisting them, so the caller can solve outside a transaction and replace the stored rounds afterwards.
+     *
+     * @param people the team from {@code fromRound} on
+     * @param groupSize target group size (will balance to ±1 if not divisible)
+     * @param pastEntries entries of the rounds before {@code fromRound}
+     * @param fromRound 1-based number of the first round to plan
+     * @param rounds number of rounds to plan
+     * @param constellationId unique identifier for this scheduling constellation
+     * @param options per-request settings, unset values fall back to the solver configuration
+     * @return the planned rounds in round order, to be consumed once
+     */
+    public Stream<ScheduleRound> generateReplannedGroups(List<Person> people, int groupSize,
+        List<ConstellationEntry> pastEntries, int fromRound, int rounds, UUID constellationId, ScheduleOptions options) {
+        return replanGroups(people, groupSize, pastEntries, fromRound, rounds, constellationId, options, false);
+    }
 
-        var roundGroups = new ArrayList<List<UUID>>();
-        for (var g = 0; g < groups; g++) {
-            roundGroups.add(new ArrayList<>());
+    private Stream<ScheduleRound> replanGroups(List<Person> people, int groupSize, List<ConstellationEntry> pastEntries,
+        int fromRound, int rounds, UUID constellationId, ScheduleOptions options, boolean persist) {
+        if (people.isEmpty() || rounds <= 0) {
+            return Stream.empty();
         }
-        var thisRoundPairs = new HashSet<Long>();
-        var deltaSum = 0L;
-
-        while (!pool.isEmpty()) {
-            var p = pool.removeLast();
-            var pi = indexById.get(p.getId());
-
-            var choice = chooseBestGroup(pi, roundGroups, targetSizes, indexById, pairCnt, recent);
-            if (choice.groupIndex < 0) {
-                return Round.fail(); // no feasible slot
-            }
-            roundGroups.get(choice.groupIndex).add(p.getId());
-            deltaSum += choice.deltaScore;
+        var seed = resolveSeed(options);
+        var window = requireNonNullElse(options.getWindow(), solverProperties.getWindow());
+        var indexById = new HashMap<UUID, Integer>();
+        for (var i = 0; i < people.size(); i++) {
+            indexById.put(people.get(i).getId(), i);
         }
-
-        return Round.success(roundGroups, thisRoundPairs, deltaSum);
+        var pastRounds = ScheduleRound.of(pastEntries)
+                                      .stream()
+                                      .map(round -> round.getEntries()
+                                                         .stream()
+                                                         .map(entry -> entry.getPersonIds()
+                                                                             .stream()
+                                                                             .map(indexById::get)
+                                                                             .filter(Objects::nonNull)
+                                                                             .mapToInt(Integer::intValue)
+                                                                             .toArray())
+                                                         .toArray(int[][]::new))
+                                      .toArray(int[][][]::new);
+        log.info("Re-planning constellation {} from round {} for {} people, continuing {} past rounds", constellationId,
+                 fromRound, people.size(), pastRounds.length);
+        var problem = SolverProblem.builder()
+                                   .peopleCount(people.size())
+                                   .targetSizes(SolverProblem.balancedSizes(people.size(), groupSize))
+                                   .rounds(rounds)
+                                   .window(window)
+                                   .seed(seed)
+                                   .pastRounds(pastRounds)
+                                   .build();
+        // continued schedules depend on their past, so neither the library nor the cache can serve them
+        var source = scheduleSolver.solveRounds(problem, options.getTimeBudget(), options.getStrategy());
+        return scheduleRounds(source, problem, fromRound, people, constellationId, persist);
     }
 
-    private Choice chooseBestGroup(int pi, List<List<UUID>> roundGroups, List<Integer> targetSizes, Map<UUID, Integer> indexById,
-        int[][] pairCnt, Deque<Set<Long>> recent) {
-        var bestDelta = Long.MAX_VALUE;
-        var bestG = -1;
-
-        for (var g = 0; g < roundGroups.size(); g++) {
-            if (roundGroups.get(g).size() >= targetSizes.get(g)) {
-                continue;
-            }
-            var delta = 0L;
-            for (var mate : roundGroups.get(g)) {
-                var qi = indexById.get(mate);
-                delta += (long) PENALTY_HISTORY * pairCnt[min(pi, qi)][max(pi, qi)];
-                if (metRecently(pi, qi, recent)) {
-                    delta += PENALTY_RECENT;
-                }
+    /**
+     * Persisted rounds are inserted in batches of at least {@link #ROUND_BATCH_MEMBERS} members, the last batch once
+     * the last round is reached.
+     */
+    private Stream<ScheduleRound> scheduleRounds(Iterator<int[]> source, SolverProblem problem, int firstRoundNumber,
+        List<Person> people, UUID constellationId, boolean persist) {
+        var groupOffsets = IndexSchedule.groupOffsets(problem.getTargetSizes());
+        var personIds = people.stream().map(Person::getId).toArray(UUID[]::new);
+        var pending = new ArrayList<ConstellationEntry>();
+        return IntStream.range(0, problem.getRounds()).mapToObj(roundIndex -> {
+            var round = scheduleRound(source.next(), firstRoundNumber + roundIndex, groupOffsets, personIds, constellationId);
+            if (!persist) {
+                return round;
             }
-            delta += (long) PENALTY_SIZE_SKEW * roundGroups.get(g).size();
-
-            if (delta < bestDelta) {
-                bestDelta = delta;
-                bestG = g;
+            pending.addAll(round.getEntries());
+            var pendingMembers = (long) pending.size() / round.getEntries().size() * people.size(); // all meet every round
+            if (pendingMembers >= ROUND_BATCH_MEMBERS || roundIndex == problem.getRounds() - 1) {
+                constellationDatabaseFacade.saveConstellationEntries(List.copyOf(pending), people);
+                pending.clear();
             }
-        }
-        return new Choice(bestG, bestDelta);
+            return round;
+        });
     }
 
-    private boolean metRecently(int a, int b, Deque<Set<Long>> recent) {
-        var key = pairKey(a, b);
-        for (var past : recent) {
-            if (past.contains(key)) {
-                return true;
-            }
+    private Iterator<int[]> roundSource(SolverProblem problem, ScheduleShape shape, UUID constellationId,
+        ScheduleOptions options) {
+        if (!problem.isShapeOnly()) {
+            // the shape covers no pair history, constraints or attributes
+            log.info("Solving constellation {} beyond its shape: {}", constellationId, shape);
+            return scheduleSolver.solveRounds(problem, options.getTimeBudget(), options.getStrategy());
         }
-        return false;
-    }
-
-    private void updateHistory(List<List<UUID>> groups, Map<UUID, Integer> indexById, int[][] pairCnt, Deque<Set<Long>> recent) {
-        var thisRound = new HashSet<Long>();
-
-        for (var g : groups) {
-            for (var i = 0; i < g.size(); i++) {
-                for (var j = i + 1; j < g.size(); j++) {
-                    var a = indexById.get(g.get(i));
-                    var b = indexById.get(g.get(j));
-                    pairCnt[min(a, b)][max(a, b)]++;
-                    thisRound.add(pairKey(a, b));
-                }
-            }
+        // the library is solved by the selected strategies, a forced one is only served from the cache
+        var precomputed = shape.solver() == null ? scheduleLibrary.get(shape) : Optional.<IndexSchedule>empty();
+        if (precomputed.isPresent()) {
+            log.info("Constellation {} taken from the schedule library: {}", constellationId, shape);
+            return Arrays.asList(precomputed.get().rounds()).iterator();
         }
-        recent.addFirst(thisRound);
-        while (recent.size() > max(0, window)) {
-            recent.removeLast();
+        var cached = scheduleCache.get(shape);
+        if (cached.isPresent()) {
+            log.info("Constellation {} taken from the schedule cache: {}", constellationId, shape);
+            return Arrays.asList(cached.get().rounds()).iterator();
         }
-    }
+        log.info("Solving constellation {}: {}", constellationId, shape);
+        var solved = scheduleSolver.solveRounds(problem, options.getTimeBudget(), options.getStrategy());
+        var rounds = new int[problem.getRounds()][];
+        return new Iterator<>() {
 
-    private int pairImbalance(int[][] pairCnt) {
-        var min = Integer.MAX_VALUE;
-        var max = Integer.MIN_VALUE;
+            private int r;
 
-        for (var i = 0; i < pairCnt.length; i++) {
-            for (var j = i + 1; j < pairCnt.length; j++) {
-                final var c = pairCnt[i][j];
-                if (c < min) {
-                    min = c;
-                }
-                if (c > max) {
-                    max = c;
+            @Override
+            public boolean hasNext() {
+                return solved.hasNext();
+            }
+
+            @Override
+            public int[] next() {
+                rounds[r] = solved.next();
+                if (++r == rounds.length) {
+                    // cached only once complete, an abandoned stream leaves no partial schedule behind
+                    scheduleCache.put(shape, new IndexSchedule(IndexSchedule.groupOffsets(problem.getTargetSizes()), rounds));
                 }
+                return rounds[r - 1];
             }
-        }
-        return max - min;
+        };
     }
 
-    private long pairKey(int a, int b) {
-        var i = min(a, b);
-        var j = max(a, b);
-        return ((long) i << 32) | (long) j;
+    /**
+     * A schedule is reproducible from its seed if it depends on nothing but the people count and the options stored in
+     * the header of the constellation: no time budget, pair history, constraints or attributes. A forced exact search
+     * depends on its node budget, which is not stored, so it is not reproducible either.
+     *
+     * @param options the settings of the schedule
+     * @return whether solving the schedule with the same seed again gives the same rounds
+     */
+    boolean isReproducible(ScheduleOptions options) {
+        return options.getTimeBudget() == null && options.getPairCounts() == null
+            && (options.getConstraints() == null || options.getConstraints().isEmpty()) && options.getAttributes() == null
+            && !ExactStrategy.NAME.equals(options.getStrategy());
     }
 
-    private static final class Result {
-
-        List<List<List<UUID>>> schedule;
-        long finalScore;
-
-        Result(List<List<List<UUID>>> schedule, long finalScore) {
-            this.schedule = schedule;
-            this.finalScore = finalScore;
-        }
+    private SolverProblem problemOf(int peopleCount, int groupSize, int rounds, ScheduleOptions options) {
+        return SolverProblem.builder()
+                            .peopleCount(peopleCount)
+                            .targetSizes(SolverProblem.balancedSizes(peopleCount, groupSize))
+                            .rounds(rounds)
+                            .window(requireNonNullElse(options.getWindow(), solverProperties.getWindow()))
+                            .seed(resolveSeed(options))
+                            .pairCounts(options.getPairCounts())
+                            .constraints(options.getConstraints())
+                            .attributes(options.getAttributes())
+                            .diversityWeight(requireNonNullElse(options.getDiversityWeight(),
+                                solverProperties.getDiversityWeight()))
+                            .restarts(options.getRestarts())
+                            .localSearchMoves(options.getLocalSearchMoves())
+                            .blockSize(options.getBlockSize())
+                            .build();
     }
 
-    private static final class Round {
-
-        boolean success;
-        List<List<UUID>> groups;
-        Set<Long> pairs;
-        long deltaScore;
-
-        private Round(boolean success, List<List<UUID>> groups, Set<Long> pairs, long deltaScore) {
-            this.success = success;
-            this.groups = groups;
-            this.pairs = pairs;
-            this.deltaScore = deltaScore;
-        }
-
-        static Round success(List<List<UUID>> groups, Set<Long> pairs, long delta) {
-            return new Round(true, groups, pairs, delta);
-        }
-
-        static Round fail() {
-            return new Round(false, List.of(), Set.of(), Long.MAX_VALUE);
+    /**
+     * @return the seed of the options, else the configured seed, else a random one
+     */
+    private long resolveSeed(ScheduleOptions options) {
+        if (options.getSeed() != null) {
+            return options.getSeed();
         }
+        return solverProperties.getSeed() != null ? solverProperties.getSeed() : ThreadLocalRandom.current().nextLong();
     }
 
-    private record Choice(int groupIndex, long deltaScore) {
-
-    }
-
-    private List<ConstellationEntry> persistSchedule(List<List<List<UUID>>> schedule, UUID constellationId) {
-        var result = new ArrayList<ConstellationEntry>();
-        for (int roundIndex = 0; roundIndex < schedule.size(); roundIndex++) {
-            var round = schedule.get(roundIndex);
-            for (int groupIndex = 0; groupIndex < round.size(); groupIndex++) {
-                var roundNumber = roundIndex + 1;
-                var groupNumber = groupIndex + 1;
-                var group = round.get(groupIndex);
-                var entry = ConstellationEntry.builder()
-                                              .id(UUID.randomUUID())
-                                              .constellationId(constellationId)
-                                              .roundNumber(roundNumber)
-                                              .groupNumber(groupNumber)
-                                              .personIds(group.stream().map(UUID::toString).collect(joining(",")))
-                                              .build();
-                constellationDatabaseFacade.saveConstellationEntry(entry);
-                result.add(entry);
+    private ScheduleRound scheduleRound(int[] round, int roundNumber, int[] groupOffsets, UUID[] personIds,
+        UUID constellationId) {
+        var entries = new ArrayList<ConstellationEntry>(groupOffsets.length - 1);
+        for (int groupIndex = 0; groupIndex < groupOffsets.length - 1; groupIndex++) {
+            var groupNumber = groupIndex + 1;
+            var group = new ArrayList<UUID>(groupOffsets[groupIndex + 1] - groupOffsets[groupIndex]);
+            for (var k = groupOffsets[groupIndex]; k < groupOffsets[groupIndex + 1]; k++) {
+                group.add(personIds[round[k]]);
             }
+            var entry = ConstellationEntry.builder()
+                                          .constellationId(constellationId)
+                                          .roundNumber(roundNumber)
+                                          .groupNumber(groupNumber)
+                                          .personIds(group)
+                                          .build();
+            entries.add(entry);
         }
-        return result;
+        return new ScheduleRound(roundNumber, entries);
     }
 
 }
@@ -0,0 +1,96 @@
+package com.weinhold.constellation.creator;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
+import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.persistence.model.Constellation;
+import com.weinhold.constellation.persistence.model.PackedRound;
+import com.weinhold.constellation.persistence.model.Person;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ConstellationStorageFacade {
+
+    private final PersonDatabaseFacade personDatabaseFacade;
+    private final ConstellationDatabaseFacade constellationDatabaseFacade;
+    private final TeamHistoryFacade teamHistoryFacade;
+
+    /**
+     * Stores a solved constellation in one short transaction: its people and rounds are inserted in batches, the
+     * meetings are added to the history of its team and its header is saved. The constellation is solved and exported
+     * before, so no connection is held while solving.
+     *
+     * @param constellation the header of the constellation
+     * @param people the new people of the constellation
+     * @param rounds all rounds packed in round order, empty if the rounds are not stored
+     * @param teamKey the key of the team or {@code null} if the constellation belongs to no team
+     * @param pairCounts how often the people met, packed in the order of the people, only used with a team key
+     */
+    @Transactional
+    public void storeConstellation(Constellation constellation, List<Person> people, List<PackedRound> rounds,
+        String teamKey, int[] pairCounts) {
+        personDatabaseFacade.insertPeople(people);
+        if (!rounds.isEmpty()) {
+            constellationDatabaseFacade.saveRounds(constellation.getId(), rounds);
+        }
+        if (teamKey != null) {
+            teamHistoryFacade.recordPairCounts(teamKey, people, pairCounts);
+        }
+        constellationDatabaseFacade.saveConstellation(constellation);
+        log.debug("Stored constellation {} with {} people and {} rounds", constellation.getId(), people.size(),
+                  rounds.size());
+    }
+
+    /**
+     * Passes the stored rounds of a constellation on one by one as they are read from a database cursor. The read-only
+     * transaction of the cursor is only open during this call.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @param people all people of the constellation
+     * @param action receives the rounds in round order
+     */
+    @Transactional(readOnly = true)
+    public void forEachStoredRound(UUID constellationId, List<Person> people, Consumer<ScheduleRound> action) {
+        try (var rounds = ScheduleRound.ofOrdered(constellationDatabaseFacade.streamEntriesOfConstellation(constellationId,
+            people))) {
+            rounds.forEach(action);
+        }
+    }
+
+    /**
+     * Stores a re-planned constellation in one short transaction: the people who joined are inserted, the stored rounds
+     * from the first given round on are replaced by the given ones and the header with the refreshed statistics is
+     * saved. The rounds are solved before, so no connection is held while solving.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @param constellation the header of the constellation or {@code null} if it is older than the headers
+     * @param joining the people who joined
+     * @param rounds the new rounds packed in round order, replacing all stored rounds from the first of them on
+     */
+    @Transactional
+    public void replaceRounds(UUID constellationId, Constellation constellation, List<Person> joining,
+        List<PackedRound> rounds) {
+        personDatabaseFacade.insertPeople(joining);
+        if (!rounds.isEmpty()) {
+            constellationDatabaseFacade.deleteEntriesOfConstellationFromRound(constellationId,
+                rounds.getFirst().roundNumber());
+            constellationDatabaseFacade.saveRounds(constellationId, rounds);
+        }
+        if (constellation != null) {
+            constellationDatabaseFacade.saveConstellation(constellation);
+        }
+        log.debug("Replaced {} rounds of constellation {}, {} people joined", rounds.size(), constellationId,
+                  joining.size());
+    }
+}
@@ -0,0 +1,12 @@
+package com.weinhold.constellation.creator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "constellation.storage")
+public class ConstellationStorageProperties {
+
+    private boolean seedOnly; // rounds reproducible from their seed are regenerated on read instead of being stored
+}
@@ -0,0 +1,77 @@
+package com.weinhold.constellation.creator;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.weinhold.constellation.creator.history.TeamPairCounts;
+import com.weinhold.constellation.persistence.TeamHistoryDatabaseFacade;
+import com.weinhold.constellation.persistence.model.Person;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class TeamHistoryFacade {
+
+    private final TeamHistoryDatabaseFacade teamHistoryDatabaseFacade;
+
+    /**
+     * Loads how often the people met in the earlier constellations of their team.
+     *
+     * @param teamKey the key of the team
+     * @param people the people of the new constellation
+     * @return the pair counts packed in the order of the people or {@code null} if the team has no history yet
+     */
+    public int[] loadPairCounts(String teamKey, List<Person> people) {
+        return load(teamKey).map(history -> history.countsOf(names(people))).orElse(null);
+    }
+
+    /**
+     * Adds the meetings of a new constellation to the history of its team. The history is locked from reading to
+     * saving, so constellations of the same team created at the same time both end up in it, and the first history of
+     * a team is inserted only if no concurrent constellation inserted it first.
+     *
+     * @param teamKey the key of the team
+     * @param people the people of the new constellation
+     * @param pairCounts how often they met, packed in the order of the people
+     */
+    @Transactional
+    public void recordPairCounts(String teamKey, List<Person> people, int[] pairCounts) {
+        var names = names(people);
+        var stored = teamHistoryDatabaseFacade.lockHistoryOfTeam(teamKey);
+        if (stored.isEmpty()) {
+            var created = TeamPairCounts.empty().merge(names, pairCounts);
+            if (teamHistoryDatabaseFacade.insertHistoryOfTeam(teamKey, created.encode())) {
+                log.info("Recording first pair history of team {} with {} people", teamKey, created.names().size());
+                return;
+            }
+            stored = teamHistoryDatabaseFacade.lockHistoryOfTeam(teamKey); // inserted and committed meanwhile
+        }
+        var merged = stored.flatMap(encoded -> decode(teamKey, encoded)).orElseGet(TeamPairCounts::empty)
+                           .merge(names, pairCounts);
+        log.info("Recording pair history of team {} with {} people", teamKey, merged.names().size());
+        teamHistoryDatabaseFacade.saveHistoryOfTeam(teamKey, merged.encode());
+    }
+
+    private Optional<TeamPairCounts> load(String teamKey) {
+        return teamHistoryDatabaseFacade.findHistoryOfTeam(teamKey).flatMap(encoded -> decode(teamKey, encoded));
+    }
+
+    private static Optional<TeamPairCounts> decode(String teamKey, byte[] encoded) {
+        try {
+            return Optional.of(TeamPairCounts.decode(encoded));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unreadable pair history of team {}", teamKey, e);
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> names(List<Person> people) {
+        return people.stream().map(Person::getName).toList();
+    }
+}
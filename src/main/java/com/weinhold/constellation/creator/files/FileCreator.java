@@ -3,6 +3,7 @@ package com.weinhold.constellation.creator.files;
 import java.io.File;
 
 import com.weinhold.constellation.creator.files.model.FileCreationInput;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 
 public interface FileCreator {
 
@@ -12,5 +13,17 @@ public interface FileCreator {
      * @param input the input containing necessary data for file creation
      * @return the created file
      */
-    File createFile(FileCreationInput input);
+    default File createFile(FileCreationInput input) {
+        var writer = open(input);
+        ScheduleRound.of(input.getEntries()).forEach(writer::write);
+        return writer.finish();
+    }
+
+    /**
+     * Starts a file that is written round by round.
+     *
+     * @param input the input containing necessary data for file creation, its entries are not used
+     * @return the writer receiving the rounds
+     */
+    RoundWriter<File> open(FileCreationInput input);
 }
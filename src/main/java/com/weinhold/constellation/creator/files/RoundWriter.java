@@ -0,0 +1,26 @@
+package com.weinhold.constellation.creator.files;
+
+import com.weinhold.constellation.creator.model.ScheduleRound;
+
+/**
+ * Output that is written round by round as soon as a round of the schedule is fixed, so only the current round has to
+ * be in memory.
+ *
+ * @param <T> the finished output
+ */
+public interface RoundWriter<T> {
+
+    /**
+     * Writes the next round. Rounds arrive in round order.
+     *
+     * @param round the round to write
+     */
+    void write(ScheduleRound round);
+
+    /**
+     * Completes the output after the last round.
+     *
+     * @return the finished output
+     */
+    T finish();
+}
@@ -1,10 +1,13 @@
 package com.weinhold.constellation.creator.files.icalendar;
 
 import static java.lang.String.format;
-import static java.util.Arrays.stream;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.ofNullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Year;
@@ -21,16 +24,25 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 import com.weinhold.constellation.creator.files.FileCreator;
+import com.weinhold.constellation.creator.files.RoundWriter;
 import com.weinhold.constellation.creator.files.model.FileCreationInput;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
 import com.weinhold.constellation.persistence.model.Person;
 
-import biweekly.Biweekly;
-import biweekly.ICalendar;
+import biweekly.ICalVersion;
 import biweekly.component.VEvent;
+import biweekly.io.TimezoneInfo;
+import biweekly.io.WriteContext;
+import biweekly.io.scribe.ScribeIndex;
+import biweekly.io.scribe.property.ICalPropertyScribe;
+import biweekly.property.ICalProperty;
 import biweekly.property.Method;
 import biweekly.property.ProductId;
 import biweekly.util.ICalDate;
+import com.github.mangstadt.vinnie.SyntaxStyle;
+import com.github.mangstadt.vinnie.VObjectParameters;
+import com.github.mangstadt.vinnie.io.VObjectWriter;
 
 @Service
 public class ICSFileCreatorService implements FileCreator {
@@ -38,41 +50,62 @@ public class ICSFileCreatorService implements FileCreator {
     private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
     private static final String PRODUCT_ID = "-//Weinhold//Groupchat//EN";
     private static final String FILE_NAME_PATTERN = "Constellations-%s.ics";
+    private static final String CALENDAR = "VCALENDAR";
+    private static final String EVENT = "VEVENT";
     private static final String EVENT_NAME_PATTERN = "Group chat – Group %s (%s )";
 
     /**
-     * Generates an ICS file containing events for each constellation entry based on the provided input.
-     * The events are created according to the cadence determined by the maximum round number (monthly, weekly, daily).
+     * Starts an ICS file containing an event for each constellation entry. The events are created according to the
+     * cadence determined by the number of dates (monthly, weekly, daily) and written as soon as their round arrives.
      *
-     * @param input the input containing constellation ID, entries, people, and year
-     * @return the created ICS file
-     * @throws IllegalArgumentException if the cadence is unsupported
+     * @param input the input containing constellation ID, dates, people, and year
+     * @return the writer receiving the rounds
+     * @throws IllegalStateException if the cadence is unsupported
      */
     @Override
-    public File createFile(FileCreationInput input) {
+    public RoundWriter<File> open(FileCreationInput input) {
 
-        var fileName = format(FILE_NAME_PATTERN, input.getConstellationId());
-        var file = new File(fileName);
+        var file = new File(fileName(input.getConstellationId()));
 
-        var maxRound = input.getEntries().stream().mapToInt(ConstellationEntry::getRoundNumber).max().orElse(0);
-        var ranges = getRanges(input, maxRound);
+        var ranges = getRanges(input, input.getDates().size());
         var nameById = input.getPeople().stream().collect(Collectors.toMap(Person::getId, Person::getName));
 
-        var iCal = new ICalendar();
-        iCal.setProductId(new ProductId(PRODUCT_ID));
-        iCal.setMethod(Method.publish());
-        input.getEntries().stream().map(e -> createEvent(e, ranges, nameById)).forEach(iCal::addEvent);
+        try {
+            return new EventWriter<>(file, Files.newBufferedWriter(file.toPath(), UTF_8), true, ranges, nameById);
+        } catch (IOException ex) {
+            throw new RuntimeException("Error writing ICS file", ex);
+        }
+    }
+
+    /**
+     * Starts an ICS calendar like {@link #open(FileCreationInput)} that is written to the given output instead of a
+     * file. The output is flushed but not closed when the last round is done.
+     *
+     * @param input the input containing constellation ID, dates, people, and year
+     * @param out the output to write the calendar to
+     * @return the writer receiving the rounds
+     * @throws IllegalStateException if the cadence is unsupported
+     */
+    public RoundWriter<Writer> open(FileCreationInput input, Writer out) {
+        var ranges = getRanges(input, input.getDates().size());
+        var nameById = input.getPeople().stream().collect(Collectors.toMap(Person::getId, Person::getName));
 
         try {
-            Biweekly.write(iCal).go(file);
-        } catch (Exception ex) {
+            return new EventWriter<>(out, out, false, ranges, nameById);
+        } catch (IOException ex) {
             throw new RuntimeException("Error writing ICS file", ex);
         }
-        return file;
     }
 
-    private List<LocalDate[]> getRanges(FileCreationInput input, int maxRound) {
-        return switch (maxRound) {
+    /**
+     * @return the name of the ICS file of a constellation
+     */
+    public static String fileName(UUID constellationId) {
+        return format(FILE_NAME_PATTERN, constellationId);
+    }
+
+    private List<LocalDate[]> getRanges(FileCreationInput input, int rounds) {
+        return switch (rounds) {
             case 12 -> monthlyRanges(input.getYear());
             case 52, 53 -> weeklyRangesIso(input.getYear());
             case 365, 366 -> dailyRanges(input.getYear());
@@ -122,7 +155,7 @@ public class ICSFileCreatorService implements FileCreator {
         var endExclusive = range[1];
 
         var names =
-            parseUuids(entry.getPersonIds()).stream().map(id -> ofNullable(nameById.get(id)).orElseGet(id::toString)).toList();
+            entry.getPersonIds().stream().map(id -> ofNullable(nameById.get(id)).orElseGet(id::toString)).toList();
 
         var title = format(EVENT_NAME_PATTERN, entry.getGroupNumber(), String.join(", ", names));
 
@@ -134,12 +167,77 @@ public class ICSFileCreatorService implements FileCreator {
         return vevent;
     }
 
-    private List<UUID> parseUuids(String csv) {
-        return (csv == null || csv.isBlank()) ? List.of()
-            : stream(csv.split(",")).map(String::trim).filter(s -> !s.isEmpty()).map(UUID::fromString).toList();
-    }
-
     private ICalDate iCalAllDay(LocalDate d) {
         return new ICalDate(Date.from(d.atStartOfDay(ZONE).toInstant()), false);
     }
+
+    /**
+     * Writes the calendar event by event with the property scribes of biweekly, so the calendar is never built as a
+     * whole.
+     *
+     * @param <T> the output returned when the calendar is finished
+     */
+    private final class EventWriter<T> implements RoundWriter<T> {
+
+        private final T output;
+        private final boolean closeTarget; // false if the caller keeps writing to the target after the calendar
+        private final List<LocalDate[]> ranges;
+        private final Map<UUID, String> nameById;
+        private final VObjectWriter writer;
+        private final ScribeIndex scribes = new ScribeIndex();
+        private final WriteContext context = new WriteContext(ICalVersion.V2_0, new TimezoneInfo(), null);
+
+        EventWriter(T output, Writer target, boolean closeTarget, List<LocalDate[]> ranges, Map<UUID, String> nameById)
+            throws IOException {
+            this.output = output;
+            this.closeTarget = closeTarget;
+            this.ranges = ranges;
+            this.nameById = nameById;
+            this.writer = new VObjectWriter(target, SyntaxStyle.NEW);
+            writer.writeBeginComponent(CALENDAR);
+            writer.writeVersion(ICalVersion.V2_0.getVersion());
+            writeProperty(new ProductId(PRODUCT_ID));
+            writeProperty(Method.publish());
+        }
+
+        @Override
+        public void write(ScheduleRound round) {
+            try {
+                for (var entry : round.getEntries()) {
+                    var event = createEvent(entry, ranges, nameById);
+                    context.setParent(event);
+                    writer.writeBeginComponent(EVENT);
+                    for (var property : event.getProperties().values()) {
+                        writeProperty(property);
+                    }
+                    writer.writeEndComponent(EVENT);
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException("Error writing ICS file", ex);
+            }
+        }
+
+        @Override
+        public T finish() {
+            try {
+                writer.writeEndComponent(CALENDAR);
+                if (closeTarget) {
+                    writer.close();
+                } else {
+                    writer.flush();
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException("Error writing ICS file", ex);
+            }
+            return output;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeProperty(ICalProperty property) throws IOException {
+            var scribe = (ICalPropertyScribe<ICalProperty>) scribes.getPropertyScribe(property);
+            var parameters = scribe.prepareParameters(property, context);
+            writer.writeProperty(null, scribe.getPropertyName(ICalVersion.V2_0), new VObjectParameters(parameters.getMap()),
+                                 scribe.writeText(property, context));
+        }
+    }
 }
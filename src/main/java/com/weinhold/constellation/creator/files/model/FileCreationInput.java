@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import com.weinhold.constellation.creator.history.PairCountWriter;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
 import com.weinhold.constellation.persistence.model.Person;
 
@@ -23,4 +24,5 @@ public class FileCreationInput {
     private List<LocalDate> dates;
     private List<Person> people;
     private int year;
+    private PairCountWriter pairCounter; // counts the pairs for the statistics sheet, a new one is used if not set
 }
@@ -1,19 +1,23 @@
 package com.weinhold.constellation.creator.files.workbook;
 
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNullElseGet;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.UUID;
 
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import com.weinhold.constellation.creator.files.FileCreator;
+import com.weinhold.constellation.creator.files.RoundWriter;
 import com.weinhold.constellation.creator.files.model.FileCreationInput;
 import com.weinhold.constellation.creator.files.workbook.plan.AnnualPlanSheetCreator;
 import com.weinhold.constellation.creator.files.workbook.statistics.StatisticsSheetCreator;
-import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.creator.history.PairCountWriter;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,31 +27,77 @@ import lombok.extern.slf4j.Slf4j;
 @AllArgsConstructor
 public class WorkbookFileCreatorService implements FileCreator {
 
-    private final PersonDatabaseFacade personDatabaseFacade;
     private final AnnualPlanSheetCreator annualPlanSheetCreator;
     private final StatisticsSheetCreator statisticsSheetCreator;
 
     /**
-     * Generates an Excel workbook containing the annual plan and the statistics based on the provided constellation entries.
+     * Starts an Excel workbook containing the annual plan and the statistics. The rounds are added to both sheets as
+     * they arrive, the file is written when the last round is done.
      *
-     * @param input the input containing constellation ID, entries, dates, and people
+     * @param input the input containing constellation ID, dates, and people
      */
     @Override
-    public File createFile(FileCreationInput input) {
-        var fileName = format("Annual Plan - %s.xlsx", input.getConstellationId());
-        var file = new File(fileName);
-        try (var workbook = new XSSFWorkbook(); var out = new FileOutputStream(file)) {
-            var peopleOfRun = personDatabaseFacade.findAllPeopleOfConstellation(input.getConstellationId());
-
-            annualPlanSheetCreator.createSheet(workbook, input.getEntries(), peopleOfRun, input.getDates());
-            statisticsSheetCreator.createSheet(workbook, input.getEntries(), peopleOfRun, input.getDates());
-
-            workbook.write(out);
-            return file;
-        } catch (IOException e) {
-            log.error("Error generating workbook for constellationId {}: {}", input.getConstellationId(), e.getMessage(), e);
-        }
-        return null;
+    public RoundWriter<File> open(FileCreationInput input) {
+        var file = new File(fileName(input.getConstellationId()));
+        var workbookWriter = openWorkbook(input);
+
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                workbookWriter.write(round);
+            }
+
+            @Override
+            public File finish() {
+                try (var workbook = workbookWriter.finish(); var out = new FileOutputStream(file)) {
+                    workbook.write(out);
+                    return file;
+                } catch (IOException e) {
+                    log.error("Error generating workbook for constellationId {}: {}", input.getConstellationId(),
+                              e.getMessage(), e);
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Starts the workbook of {@link #open(FileCreationInput)} in memory, for callers writing it somewhere else than
+     * into a file.
+     *
+     * @param input the input containing constellation ID, dates, and people
+     * @return the writer receiving the rounds, finishing it completes both sheets and returns the workbook to be
+     *         written and closed by the caller
+     */
+    public RoundWriter<XSSFWorkbook> openWorkbook(FileCreationInput input) {
+        var workbook = new XSSFWorkbook();
+        var plan = annualPlanSheetCreator.openSheet(workbook, input.getPeople(), input.getDates());
+        var pairCounter = requireNonNullElseGet(input.getPairCounter(), () -> new PairCountWriter(input.getPeople()));
+        var statistics = statisticsSheetCreator.openSheet(workbook, input.getPeople(), pairCounter);
+
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                plan.write(round);
+                statistics.write(round);
+            }
+
+            @Override
+            public XSSFWorkbook finish() {
+                plan.finish();
+                statistics.finish();
+                return workbook;
+            }
+        };
+    }
+
+    /**
+     * @return the name of the workbook file of a constellation
+     */
+    public static String fileName(UUID constellationId) {
+        return format("Annual Plan - %s.xlsx", constellationId);
     }
 
 }
@@ -3,8 +3,11 @@ package com.weinhold.constellation.creator.files.workbook;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 
+import com.weinhold.constellation.creator.files.RoundWriter;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
 import com.weinhold.constellation.persistence.model.Person;
 
@@ -13,6 +16,15 @@ import com.weinhold.constellation.persistence.model.Person;
  */
 public interface WorkbookSheetCreator {
 
-    void createSheet(Workbook workbook, List<ConstellationEntry> constellationEntries, List<Person> peopleOfConstellation,
-        List<LocalDate> dates);
+    default void createSheet(Workbook workbook, List<ConstellationEntry> constellationEntries, List<Person> peopleOfConstellation,
+        List<LocalDate> dates) {
+        var writer = openSheet(workbook, peopleOfConstellation, dates);
+        ScheduleRound.of(constellationEntries).forEach(writer::write);
+        writer.finish();
+    }
+
+    /**
+     * Creates the sheet and returns the writer that fills it round by round.
+     */
+    RoundWriter<Sheet> openSheet(Workbook workbook, List<Person> peopleOfConstellation, List<LocalDate> dates);
 }
@@ -1,10 +1,7 @@
 package com.weinhold.constellation.creator.files.workbook.plan;
 
 import static java.time.format.DateTimeFormatter.ofPattern;
-import static java.util.Arrays.stream;
-import static java.util.Comparator.comparingInt;
 import static java.util.Locale.ENGLISH;
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toMap;
 
 import java.time.LocalDate;
@@ -12,14 +9,16 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.stereotype.Component;
 
+import com.weinhold.constellation.creator.files.RoundWriter;
 import com.weinhold.constellation.creator.files.workbook.WorkbookSheetCreator;
-import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 import com.weinhold.constellation.persistence.model.Person;
 
 @Component
@@ -34,29 +33,37 @@ public class AnnualPlanSheetCreator implements WorkbookSheetCreator {
     private static final String CELL_DATE_FORMAT = "E, dd MMM yyyy";
 
     /**
-     * Creates an "Annual Plan" sheet in the provided workbook based on the given constellation entries and year.
-     * The method determines the cadence (monthly, weekly, daily) based on the number of entries and populates
-     * the sheet with dates, round numbers, group numbers, and person IDs.
+     * Creates an "Annual Plan" sheet in the provided workbook with a column per round. The header is determined by the
+     * cadence (monthly, weekly, daily) of the dates, the group members of every round are written into its column as
+     * soon as the round arrives.
      *
      * @param workbook the Excel workbook where the sheet will be created
-     * @param constellationEntries the list of constellation entries to be included in the plan
      * @param peopleOfConstellation the list of people involved in the constellation
-     * @param dates the dates corresponding to the entries, must match the expected cadence
-     * @throws IllegalArgumentException if the number of entries does not match expected cadences or if 366 entries are provided
-     *         for a non-leap year
+     * @param dates the dates of the rounds, must match the expected cadence
+     * @return the writer filling in the rounds
+     * @throws IllegalArgumentException if the number of dates does not match expected cadences
      */
     @Override
-    public void createSheet(Workbook workbook, List<ConstellationEntry> constellationEntries, List<Person> peopleOfConstellation,
-        List<LocalDate> dates) {
-        constellationEntries.sort(
-            comparingInt(ConstellationEntry::getRoundNumber).thenComparingInt(ConstellationEntry::getGroupNumber));
-
+    public RoundWriter<Sheet> openSheet(Workbook workbook, List<Person> peopleOfConstellation, List<LocalDate> dates) {
         var sheet = workbook.createSheet(SHEET_NAME);
         createHeader(sheet, dates);
-        createGroupRows(sheet, constellationEntries, peopleOfConstellation);
-        for (var c = 0; c <= dates.size(); c++) {
-            sheet.autoSizeColumn(c);
-        }
+        var personNameById = peopleOfConstellation.stream().collect(toMap(Person::getId, Person::getName));
+
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                createGroupRows(sheet, round, personNameById);
+            }
+
+            @Override
+            public Sheet finish() {
+                for (var c = 0; c <= dates.size(); c++) {
+                    sheet.autoSizeColumn(c);
+                }
+                return sheet;
+            }
+        };
     }
 
     private void createHeader(Sheet sheet, List<LocalDate> dates) {
@@ -116,24 +123,16 @@ public class AnnualPlanSheetCreator implements WorkbookSheetCreator {
         return start.format(DMY) + " - " + end.format(DMY);
     }
 
-    private void createGroupRows(Sheet sheet, List<ConstellationEntry> constellationEntries, List<Person> peopleOfConstellation) {
-        var personNameById = peopleOfConstellation.stream().collect(toMap(Person::getId, Person::getName));
-        var constellationsByRound = constellationEntries.stream().collect(groupingBy(ConstellationEntry::getRoundNumber));
-
+    private void createGroupRows(Sheet sheet, ScheduleRound round, Map<UUID, String> personNameById) {
         var rowNumber = 3;
-        for (var i = 0; i < constellationsByRound.size(); i++) {
-            var constellations = constellationsByRound.get(i + 1);
-            for (var constellation : constellations) {
-                var personIds = stream(constellation.getPersonIds().split(",")).map(UUID::fromString).toList();
-                for (var id : personIds) {
-                    var currentRow = sheet.getRow(rowNumber);
-                    var row = currentRow == null ? sheet.createRow(rowNumber) : currentRow;
-                    row.createCell(i + 1).setCellValue(personNameById.get(id));
-                    rowNumber++;
-                }
+        for (var constellation : round.getEntries()) {
+            for (var id : constellation.getPersonIds()) {
+                var currentRow = sheet.getRow(rowNumber);
+                var row = currentRow == null ? sheet.createRow(rowNumber) : currentRow;
+                row.createCell(round.getRoundNumber()).setCellValue(personNameById.get(id));
                 rowNumber++;
             }
-            rowNumber = 3;
+            rowNumber++;
         }
     }
 }
@@ -4,11 +4,15 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.stereotype.Component;
 
+import com.weinhold.constellation.creator.files.RoundWriter;
 import com.weinhold.constellation.creator.files.workbook.WorkbookSheetCreator;
-import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.creator.history.PairCountWriter;
+import com.weinhold.constellation.creator.model.FairnessSummary;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 import com.weinhold.constellation.persistence.model.Person;
 
 import lombok.AllArgsConstructor;
@@ -19,19 +23,55 @@ public class StatisticsSheetCreator implements WorkbookSheetCreator {
 
     private static final String SHEET_NAME = "Statistics";
     private static final String PERSON_HEADER = "Person";
+    private static final String MIN_LABEL = "Min pair count";
+    private static final String MAX_LABEL = "Max pair count";
+    private static final String MEAN_LABEL = "Mean pair count";
+    private static final String VARIANCE_LABEL = "Pair count variance";
+    private static final String NEVER_MET_LABEL = "Pairs never met";
 
     /**
-     * Creates a "Statistics" sheet in the provided workbook based on the given constellation entries and people of the run.
-     * The method populates the sheet with a matrix showing how many times each pair of people have been grouped together.
+     * Creates a "Statistics" sheet in the provided workbook based on the people of the run. The sheet is a matrix showing
+     * how many times each pair of people have been grouped together, followed by a summary of how evenly the pairs met;
+     * the pair counts are collected round by round and the sheet is written once the last round arrived.
      *
      * @param workbook the Excel workbook where the sheet will be created
-     * @param constellationEntries the list of constellation entries to be analyzed
      * @param peopleOfConstellation the list of people involved in the constellation
-     * @param dates the dates corresponding to the entries (not used in this method)
+     * @param dates the dates corresponding to the rounds (not used in this method)
+     * @return the writer counting the pairs of the rounds
      */
     @Override
-    public void createSheet(Workbook workbook, List<ConstellationEntry> constellationEntries, List<Person> peopleOfConstellation,
-        List<LocalDate> dates) {
+    public RoundWriter<Sheet> openSheet(Workbook workbook, List<Person> peopleOfConstellation, List<LocalDate> dates) {
+        return openSheet(workbook, peopleOfConstellation, new PairCountWriter(peopleOfConstellation));
+    }
+
+    /**
+     * Creates the "Statistics" sheet like {@link #openSheet(Workbook, List, List)}, counting the pairs with the given
+     * counter, so the caller reads the same counts and fairness summary as the sheet once it is finished.
+     *
+     * @param workbook the Excel workbook where the sheet will be created
+     * @param peopleOfConstellation the list of people involved in the constellation
+     * @param pairCounter the counter of the pairs of the people, receiving the rounds written to the sheet
+     * @return the writer counting the pairs of the rounds
+     */
+    public RoundWriter<Sheet> openSheet(Workbook workbook, List<Person> peopleOfConstellation,
+        PairCountWriter pairCounter) {
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                pairCounter.write(round);
+            }
+
+            @Override
+            public Sheet finish() {
+                var sheet = createMatrix(workbook, peopleOfConstellation, pairCounter);
+                createSummary(sheet, pairCounter.summary());
+                return sheet;
+            }
+        };
+    }
+
+    private Sheet createMatrix(Workbook workbook, List<Person> peopleOfConstellation, PairCountWriter pairCounter) {
         var sheet = workbook.createSheet(SHEET_NAME);
         var header = sheet.createRow(0);
         header.createCell(0).setCellValue(PERSON_HEADER);
@@ -51,14 +91,26 @@ public class StatisticsSheetCreator implements WorkbookSheetCreator {
                 if (personA.equals(personB)) {
                     cell.setCellValue("-");
                 } else {
-                    cell.setCellValue(
-                        constellationEntries.stream()
-                                            .filter(entry -> entry.getPersonIds().contains(personA.getId().toString())
-                                                && entry.getPersonIds().contains(personB.getId().toString()))
-                                            .count());
+                    cell.setCellValue(pairCounter.count(rowIndex, columnIndex));
                 }
                 cell.setCellStyle(cellStyle);
             }
         }
+        return sheet;
+    }
+
+    private void createSummary(Sheet sheet, FairnessSummary fairness) {
+        var rowIndex = sheet.getLastRowNum() + 2;
+        createSummaryRow(sheet, rowIndex++, MIN_LABEL, fairness.getMinPairCount());
+        createSummaryRow(sheet, rowIndex++, MAX_LABEL, fairness.getMaxPairCount());
+        createSummaryRow(sheet, rowIndex++, MEAN_LABEL, fairness.getMeanPairCount());
+        createSummaryRow(sheet, rowIndex++, VARIANCE_LABEL, fairness.getPairCountVariance());
+        createSummaryRow(sheet, rowIndex, NEVER_MET_LABEL, fairness.getNeverMetPairs());
+    }
+
+    private void createSummaryRow(Sheet sheet, int rowIndex, String label, double value) {
+        var row = sheet.createRow(rowIndex);
+        row.createCell(0).setCellValue(label);
+        row.createCell(1).setCellValue(value);
     }
 }
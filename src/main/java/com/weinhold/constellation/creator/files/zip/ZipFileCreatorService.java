@@ -1,20 +1,28 @@
 package com.weinhold.constellation.creator.files.zip;
 
 import static java.lang.String.format;
-import static java.nio.file.Files.readAllBytes;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.UUID;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.springframework.stereotype.Service;
 
 import com.weinhold.constellation.creator.files.FileCreator;
+import com.weinhold.constellation.creator.files.RoundWriter;
 import com.weinhold.constellation.creator.files.icalendar.ICSFileCreatorService;
 import com.weinhold.constellation.creator.files.model.FileCreationInput;
 import com.weinhold.constellation.creator.files.workbook.WorkbookFileCreatorService;
+import com.weinhold.constellation.creator.model.ScheduleRound;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,27 +36,97 @@ public class ZipFileCreatorService implements FileCreator {
     private final ICSFileCreatorService ICSFileCreatorService;
 
     /**
-     * Creates a ZIP file containing the workbook and ICS files based on the provided input.
+     * Starts a ZIP file containing the workbook and ICS files. Every round is passed on to both files as soon as it
+     * arrives, the ZIP file is packed when the last round is done.
      *
-     * @param input the input containing constellation ID, entries, dates, people, and year
-     * @return the created ZIP file
+     * @param input the input containing constellation ID, dates, people, and year
+     * @return the writer receiving the rounds
      */
     @Override
-    public File createFile(FileCreationInput input) {
-        var workbookFile = workbookFileCreatorService.createFile(input);
-        var icsFile = ICSFileCreatorService.createFile(input);
+    public RoundWriter<File> open(FileCreationInput input) {
+        var workbookWriter = workbookFileCreatorService.open(input);
+        var icsWriter = ICSFileCreatorService.open(input);
 
-        var zipFileName = format("Constellations-%s.zip", input.getConstellationId());
-        var zipFile = new File(zipFileName);
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                workbookWriter.write(round);
+                icsWriter.write(round);
+            }
+
+            @Override
+            public File finish() {
+                return zip(input, workbookWriter.finish(), icsWriter.finish());
+            }
+        };
+    }
+
+    /**
+     * Streams the ZIP file of {@link #open(FileCreationInput)} to the given output without temporary files. The
+     * calendar entry comes first and is written event by event as the rounds arrive, the workbook entry is added when
+     * the last round is done. The output is finished but not closed.
+     *
+     * @param input the input containing constellation ID, dates, people, and year
+     * @param out the output to write the ZIP file to
+     * @return the writer receiving the rounds
+     */
+    public RoundWriter<OutputStream> open(FileCreationInput input, OutputStream out) {
+        var zipOut = new ZipOutputStream(out);
+        var workbookWriter = workbookFileCreatorService.openWorkbook(input);
+        RoundWriter<Writer> icsWriter;
+        try {
+            zipOut.putNextEntry(new ZipEntry(ICSFileCreatorService.fileName(input.getConstellationId())));
+            icsWriter = ICSFileCreatorService.open(input, new OutputStreamWriter(zipOut, UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating zip file for constellationId " + input.getConstellationId(),
+                e);
+        }
+
+        return new RoundWriter<>() {
+
+            @Override
+            public void write(ScheduleRound round) {
+                workbookWriter.write(round);
+                icsWriter.write(round);
+            }
+
+            @Override
+            public OutputStream finish() {
+                icsWriter.finish();
+                try (var workbook = workbookWriter.finish()) {
+                    zipOut.closeEntry();
+                    zipOut.putNextEntry(new ZipEntry(WorkbookFileCreatorService.fileName(input.getConstellationId())));
+                    workbook.write(zipOut);
+                    zipOut.closeEntry();
+                    zipOut.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error creating zip file for constellationId "
+                        + input.getConstellationId(), e);
+                }
+                return out;
+            }
+        };
+    }
+
+    /**
+     * @return the name of the ZIP file of a constellation
+     */
+    public static String fileName(UUID constellationId) {
+        return format("Constellations-%s.zip", constellationId);
+    }
+
+    private File zip(FileCreationInput input, File workbookFile, File icsFile) {
+        var zipFile = new File(fileName(input.getConstellationId()));
         try (var zipOut = new ZipOutputStream(new FileOutputStream(zipFile))) {
             var workbookEntry = new ZipEntry(workbookFile.getName());
             zipOut.putNextEntry(workbookEntry);
-            zipOut.write(readAllBytes(workbookFile.toPath()));
+            Files.copy(workbookFile.toPath(), zipOut);
             zipOut.closeEntry();
 
             var icsEntry = new ZipEntry(icsFile.getName());
             zipOut.putNextEntry(icsEntry);
-            zipOut.write(readAllBytes(icsFile.toPath()));
+            Files.copy(icsFile.toPath(), zipOut);
             zipOut.closeEntry();
         } catch (IOException e) {
             log.error("Error creating zip file for constellationId {}: {}", input.getConstellationId(), e.getMessage(), e);
@@ -0,0 +1,74 @@
+package com.weinhold.constellation.creator.history;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.weinhold.constellation.creator.files.RoundWriter;
+import com.weinhold.constellation.creator.model.FairnessSummary;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.creator.solver.history.PairCountHistogram;
+import com.weinhold.constellation.persistence.model.Person;
+
+/**
+ * Counts how often the people of a schedule meet while its rounds are written, along with the histogram of the counts.
+ * The statistics sheet, the fairness summary and the team history of a schedule all read the same counter.
+ */
+public class PairCountWriter implements RoundWriter<int[]> {
+
+    private final int n;
+    private final Map<UUID, Integer> indexById = new HashMap<>();
+    private final int[] counts;
+    private final PairCountHistogram histogram;
+
+    public PairCountWriter(List<Person> people) {
+        this.n = people.size();
+        for (var i = 0; i < n; i++) {
+            indexById.put(people.get(i).getId(), i);
+        }
+        this.counts = new int[TeamPairCounts.pairs(n)];
+        this.histogram = new PairCountHistogram(n);
+    }
+
+    @Override
+    public void write(ScheduleRound round) {
+        for (var entry : round.getEntries()) {
+            var members = entry.getPersonIds();
+            var group = new int[members.size()];
+            for (var k = 0; k < group.length; k++) {
+                group[k] = indexById.get(members.get(k));
+            }
+            for (var i = 0; i < group.length; i++) {
+                for (var j = i + 1; j < group.length; j++) {
+                    var slot = TeamPairCounts.slot(Math.min(group[i], group[j]), Math.max(group[i], group[j]), n);
+                    histogram.increment(counts[slot]++);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param a index of a person
+     * @param b index of another person
+     * @return how often the two people met in the rounds written so far
+     */
+    public int count(int a, int b) {
+        return counts[TeamPairCounts.slot(Math.min(a, b), Math.max(a, b), n)];
+    }
+
+    /**
+     * @return the pair counts packed in the order of the people
+     */
+    @Override
+    public int[] finish() {
+        return counts;
+    }
+
+    /**
+     * @return how evenly the pairs of the rounds written so far met
+     */
+    public FairnessSummary summary() {
+        return FairnessSummary.of(histogram);
+    }
+}
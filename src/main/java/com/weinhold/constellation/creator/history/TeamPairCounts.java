@@ -0,0 +1,166 @@
+package com.weinhold.constellation.creator.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How often the people of a team met across all its constellations. People are known by name, since every
+ * constellation saves its people anew. The counts are packed into the upper triangle of the pair matrix row by row
+ * and kept as primitive arrays, so loading and merging stay O(n²) without an object per pair.
+ * <p>
+ * Encoding (big-endian): magic, number of people, the names, then the pair counts as unsigned shorts that saturate at
+ * {@value #MAX_COUNT}.
+ *
+ * @param names the people of the team, first name wins if a name occurs twice
+ * @param counts pair counts in packed upper triangle order
+ */
+public record TeamPairCounts(List<String> names, int[] counts) {
+
+    private static final int MAGIC = 0x43544831; // "CTH1"
+    static final int MAX_COUNT = 0xFFFF;
+    public static final int MAX_PEOPLE = 1 << 16; // the most people whose packed pairs fit into an array
+
+    public static TeamPairCounts empty() {
+        return new TeamPairCounts(List.of(), new int[0]);
+    }
+
+    /**
+     * @return the number of pairs of {@code n} people, the length of their packed upper triangle
+     * @throws IllegalArgumentException if there are more than {@value #MAX_PEOPLE} people, whose pairs overflow an array
+     */
+    public static int pairs(int n) {
+        if (n > MAX_PEOPLE) {
+            throw new IllegalArgumentException("The pairs of at most " + MAX_PEOPLE + " people can be counted, not " + n);
+        }
+        return (int) (n * (n - 1L) / 2);
+    }
+
+    /**
+     * @return the slot of the pair {@code a < b} of {@code n} people in packed upper triangle order
+     */
+    public static int slot(int a, int b, int n) {
+        return (int) (a * (2L * n - a - 1) / 2 + b - a - 1);
+    }
+
+    /**
+     * @param people names of the people of a new schedule
+     * @return how often the people met so far, packed in the order of {@code people}
+     */
+    public int[] countsOf(List<String> people) {
+        var stored = index(people);
+        var n = people.size();
+        var result = new int[pairs(n)];
+        var k = 0;
+        for (var a = 0; a < n; a++) {
+            for (var b = a + 1; b < n; b++, k++) {
+                var sa = stored[a];
+                var sb = stored[b];
+                if (sa >= 0 && sb >= 0 && sa != sb) {
+                    result[k] = counts[slot(Math.min(sa, sb), Math.max(sa, sb), names.size())];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param people names of the people of a new schedule
+     * @param added how often the people met in it, packed in the order of {@code people}
+     * @return the counts of this team plus the added ones, new people are appended
+     */
+    public TeamPairCounts merge(List<String> people, int[] added) {
+        var union = new ArrayList<>(names);
+        var known = new HashMap<String, Integer>();
+        for (var i = 0; i < names.size(); i++) {
+            known.putIfAbsent(names.get(i), i);
+        }
+        for (var name : people) {
+            if (known.putIfAbsent(name, union.size()) == null) {
+                union.add(name);
+            }
+        }
+        var m = union.size();
+        var merged = new int[pairs(m)];
+        var old = names.size();
+        var k = 0;
+        for (var a = 0; a < old; a++) {
+            for (var b = a + 1; b < old; b++) {
+                merged[slot(a, b, m)] = counts[k++];
+            }
+        }
+        var stored = index(people, known);
+        var n = people.size();
+        k = 0;
+        for (var a = 0; a < n; a++) {
+            for (var b = a + 1; b < n; b++, k++) {
+                var sa = stored[a];
+                var sb = stored[b];
+                if (sa != sb) {
+                    var s = slot(Math.min(sa, sb), Math.max(sa, sb), m);
+                    merged[s] = Math.min(MAX_COUNT, merged[s] + added[k]);
+                }
+            }
+        }
+        return new TeamPairCounts(List.copyOf(union), merged);
+    }
+
+    public byte[] encode() {
+        var bytes = new ByteArrayOutputStream(Integer.BYTES * 2 + names.size() * 16 + counts.length * Character.BYTES);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(names.size());
+            for (var name : names) {
+                out.writeUTF(name);
+            }
+            for (var count : counts) {
+                out.writeChar(Math.min(MAX_COUNT, count));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are no encoded pair counts
+     */
+    public static TeamPairCounts decode(byte[] encoded) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an encoded team history");
+            }
+            var n = in.readInt();
+            var names = new ArrayList<String>(n);
+            for (var i = 0; i < n; i++) {
+                names.add(in.readUTF());
+            }
+            var counts = new int[pairs(n)];
+            for (var k = 0; k < counts.length; k++) {
+                counts[k] = in.readChar();
+            }
+            return new TeamPairCounts(List.copyOf(names), counts);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated team history", e);
+        }
+    }
+
+    private int[] index(List<String> people) {
+        var known = new HashMap<String, Integer>();
+        for (var i = 0; i < names.size(); i++) {
+            known.putIfAbsent(names.get(i), i);
+        }
+        return index(people, known);
+    }
+
+    private static int[] index(List<String> people, Map<String, Integer> known) {
+        return people.stream().mapToInt(name -> known.getOrDefault(name, -1)).toArray();
+    }
+}
@@ -0,0 +1,17 @@
+package com.weinhold.constellation.creator.model;
+
+import java.io.File;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The exported files of a new constellation and how evenly its pairs met.
+ */
+@Data
+@AllArgsConstructor
+public class CreatedConstellation {
+
+    private File file;
+    private FairnessSummary fairness;
+}
@@ -0,0 +1,36 @@
+package com.weinhold.constellation.creator.model;
+
+import com.weinhold.constellation.creator.solver.history.PairCountHistogram;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How evenly the pairs of a schedule met.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FairnessSummary {
+
+    private long pairs;
+    private int minPairCount;
+    private int maxPairCount;
+    private double meanPairCount;
+    private double pairCountVariance;
+    private long neverMetPairs;
+
+    public static FairnessSummary of(PairCountHistogram histogram) {
+        return FairnessSummary.builder()
+                              .pairs(histogram.pairs())
+                              .minPairCount(histogram.min())
+                              .maxPairCount(histogram.max())
+                              .meanPairCount(histogram.mean())
+                              .pairCountVariance(histogram.variance())
+                              .neverMetPairs(histogram.neverMet())
+                              .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.weinhold.constellation.creator.model;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.weinhold.constellation.creator.solver.PairConstraint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional per-request settings of a schedule. Unset values fall back to the solver configuration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleOptions {
+
+    private Long seed;
+    private Integer window;
+    private Duration timeBudget;
+    private int[] pairCounts; // meetings of the people carried over from earlier constellations, packed upper triangle
+    private List<PairConstraint> constraints; // pairs of people that must not share a group
+    private int[][] attributes; // value index of every person per attribute, -1 if unknown
+    private Integer diversityWeight;
+    private String strategy; // forces the solver strategy of this name, for testing and reproducible schedules
+    private Integer restarts; // pins the greedy restarts of a reproducible schedule
+    private Integer localSearchMoves; // pins the swap attempts per person and round of a reproducible schedule
+    private Integer blockSize; // pins the people per block of a reproducible decomposed schedule
+}
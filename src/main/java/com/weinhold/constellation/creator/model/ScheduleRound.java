@@ -0,0 +1,84 @@
+package com.weinhold.constellation.creator.model;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The groups of a single round, ordered by group number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleRound {
+
+    private int roundNumber;
+    private List<ConstellationEntry> entries;
+
+    /**
+     * @param entries constellation entries of any number of rounds, in any order
+     * @return the rounds of the entries, ordered by round number
+     */
+    public static List<ScheduleRound> of(List<ConstellationEntry> entries) {
+        return entries.stream()
+                      .collect(groupingBy(ConstellationEntry::getRoundNumber, TreeMap::new, toList()))
+                      .entrySet()
+                      .stream()
+                      .map(round -> new ScheduleRound(round.getKey(),
+                          round.getValue().stream().sorted(comparingInt(ConstellationEntry::getGroupNumber)).toList()))
+                      .toList();
+    }
+
+    /**
+     * Groups a stream of entries into rounds lazily, so only the round being built is held in memory. Closing the
+     * rounds closes the entries.
+     *
+     * @param entries constellation entries ordered by round and group
+     * @return the rounds of the entries, ordered by round number
+     */
+    public static Stream<ScheduleRound> ofOrdered(Stream<ConstellationEntry> entries) {
+        var source = entries.iterator();
+        var rounds = new Iterator<ScheduleRound>() {
+
+            private ConstellationEntry next = source.hasNext() ? source.next() : null; // first entry of the next round
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ScheduleRound next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                var round = new ScheduleRound(next.getRoundNumber(), new ArrayList<>());
+                while (next != null && next.getRoundNumber() == round.getRoundNumber()) {
+                    round.getEntries().add(next);
+                    next = source.hasNext() ? source.next() : null;
+                }
+                return round;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rounds, Spliterator.ORDERED), false)
+                            .onClose(entries::close);
+    }
+}
@@ -0,0 +1,557 @@
+package com.weinhold.constellation.creator.solver;
+
+import static com.weinhold.constellation.creator.solver.ScheduleScore.PENALTY_HISTORY;
+import static com.weinhold.constellation.creator.solver.ScheduleScore.PENALTY_RECENT;
+import static com.weinhold.constellation.creator.solver.ScheduleScore.PENALTY_SIZE_SKEW;
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.weinhold.constellation.creator.solver.history.DensePairHistory;
+import com.weinhold.constellation.creator.solver.history.PairCountHistogram;
+import com.weinhold.constellation.creator.solver.history.PairHistory;
+
+/**
+ * Greedy round-by-round construction of a schedule. Works purely on person indices, all buffers of a restart are
+ * allocated once and reused for every round.
+ */
+public class GreedySolver {
+
+    private static final long INFEASIBLE = -1;
+    private static final int CONSTRAINED_ROUND_ATTEMPTS = 16; // reshuffles before a constrained restart fails
+
+    private final SolverProblem problem;
+    private final int n;
+    private final int rounds;
+    private final int pastRounds; // already played rounds replayed into the history before the first round
+    private final int[] pairCounts; // carried over meetings, shifted so the least frequent pair starts at 0
+    private final int historyRounds; // bounds the highest pair count of the history
+    private final int window; // "no-repeat" window (pairs met in the last `window` rounds are penalized heavily)
+    private final int[] targetSizes;
+    private final int[] groupOffsets;
+    private final int[] groupOfSlot;
+    private final boolean offHeap;
+    private final boolean dense; // full square history whose rows are scored with the Vector API
+    private final int localSearchMoves;
+    private final long sizeSkewPerRound; // part of every round score that no schedule can avoid
+    private final PairConstraint[] constraints;
+    private final boolean constrained; // unconstrained problems never touch the constraint bitsets
+    private final int words; // longs of a bitset over all people
+    private final boolean diverse; // people have attributes whose shared values are penalized
+    private final int diversityWeight;
+    private final int attributeCount;
+    private final int[] valueSlots; // row per person, global index of its value of every attribute or -1 if unknown
+    private final int valueCount; // distinct values of all attributes
+    private final Queue<PairHistory> idleHistories = new ConcurrentLinkedQueue<>(); // one per worker, reset per restart
+
+    public GreedySolver(SolverProblem problem, SolverProperties properties) {
+        this.problem = problem;
+        this.n = problem.getPeopleCount();
+        this.rounds = problem.getRounds();
+        this.pastRounds = problem.pastRoundCount();
+        this.pairCounts = shifted(problem.getPairCounts());
+        this.historyRounds = pastRounds + rounds + (pairCounts == null ? 0 : Arrays.stream(pairCounts).max().orElse(0));
+        this.window = max(0, problem.getWindow());
+        this.targetSizes = problem.getTargetSizes();
+        this.groupOffsets = IndexSchedule.groupOffsets(targetSizes);
+        this.groupOfSlot = groupOfSlot(groupOffsets);
+        this.offHeap = n >= properties.getOffHeapThreshold();
+        this.dense = properties.isVectorScoring() && !offHeap && n <= DensePairHistory.MAX_PEOPLE;
+        this.localSearchMoves = targetSizes.length < 2 ? 0 : max(0, problem.localSearchMoves(properties)) * n;
+        this.sizeSkewPerRound = ScheduleScore.sizeSkewPerRound(targetSizes);
+        this.constraints = problem.hasConstraints() ? problem.getConstraints().toArray(PairConstraint[]::new)
+            : new PairConstraint[0];
+        this.constrained = constraints.length > 0;
+        this.words = (n + Long.SIZE - 1) / Long.SIZE;
+        this.diverse = problem.hasAttributes();
+        this.diversityWeight = problem.getDiversityWeight();
+        this.attributeCount = diverse ? problem.getAttributes().length : 0;
+        this.valueSlots = new int[n * attributeCount];
+        this.valueCount = diverse ? valueSlots(problem.getAttributes(), valueSlots) : 0;
+    }
+
+    /**
+     * @return whether the pair history is kept outside the Java heap
+     */
+    public boolean offHeap() {
+        return offHeap;
+    }
+
+    /**
+     * @return the memory the pair history of a single restart occupies, restarts running one after the other on the
+     *         same worker share it
+     */
+    public long historyBytes() {
+        return dense ? DensePairHistory.estimateBytes(n) : PairHistory.estimateBytes(n, historyRounds, offHeap);
+    }
+
+    /**
+     * @return the lower bound of the score, a restart reaching it is optimal
+     * @see ScheduleScore#lowerBound(SolverProblem)
+     */
+    public long lowerBound() {
+        return ScheduleScore.lowerBound(problem);
+    }
+
+    /**
+     * Builds one complete schedule. The restart gives up as soon as a person cannot be placed or its partial score
+     * plus the unavoidable score of the remaining rounds can no longer beat the best restart so far.
+     *
+     * @param rng the random stream of this restart
+     * @param context the running search, polled once per round
+     * @return the schedule and its score or {@code null} if a person could not be placed or the restart was abandoned
+     */
+    public RestartResult<IndexSchedule> tryOneRestart(SplittableRandom rng, RestartContext context) {
+        var construction = new Construction();
+        try {
+            return construct(construction, rng, context);
+        } finally {
+            idleHistories.add(construction.history);
+        }
+    }
+
+    private RestartResult<IndexSchedule> construct(Construction construction, SplittableRandom rng,
+        RestartContext context) {
+        var schedule = new int[rounds][];
+        var totalScore = 0L;
+
+        for (var r = 0; r < rounds; r++) {
+            if (context.abandoned()) {
+                return null;
+            }
+            var round = new int[n];
+            var delta = construction.buildRound(r, round, rng);
+            if (delta == INFEASIBLE) {
+                return null;
+            }
+            totalScore += delta + construction.improveRound(round, rng);
+            construction.updateHistory(r, round);
+            schedule[r] = round;
+            if ((totalScore + sizeSkewPerRound * (rounds - r - 1)) * 1000 > context.incumbent()) {
+                return null; // hopeless, the imbalance tie-break can only add to the score
+            }
+        }
+
+        var imbalance = construction.histogram.max() - construction.histogram.min();
+        var finalScore = totalScore * 1000 + imbalance; // base score dominates, imbalance tie-breaks
+        return new RestartResult<>(new IndexSchedule(groupOffsets, schedule), finalScore);
+    }
+
+    /**
+     * Builds a single schedule round by round. A round is final as soon as it is returned, so it can be consumed while
+     * the later rounds are still being built. With the same random stream the rounds are the ones of
+     * {@link #tryOneRestart(SplittableRandom, RestartContext)} without incumbent.
+     *
+     * @param rng the random stream of the schedule
+     * @return the rounds of the schedule, each one holding the person indices ordered by group
+     */
+    public Iterator<int[]> rounds(SplittableRandom rng) {
+        var construction = new Construction();
+        return new Iterator<>() {
+
+            private int r;
+
+            @Override
+            public boolean hasNext() {
+                return r < rounds;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var round = new int[n];
+                if (construction.buildRound(r, round, rng) == INFEASIBLE) {
+                    throw new IllegalStateException("Failed to build a schedule");
+                }
+                construction.improveRound(round, rng);
+                construction.updateHistory(r++, round);
+                if (r == rounds) {
+                    idleHistories.add(construction.history);
+                }
+                return round;
+            }
+        };
+    }
+
+    /**
+     * Numbers the values of all attributes consecutively, attribute by attribute.
+     *
+     * @param attributes value index of every person per attribute, negative if unknown
+     * @param valueSlots buffer receiving the global value index of every person per attribute, -1 if unknown
+     * @return the number of distinct values of all attributes
+     */
+    private static int valueSlots(int[][] attributes, int[] valueSlots) {
+        var offset = 0;
+        for (var a = 0; a < attributes.length; a++) {
+            var values = 0;
+            for (var p = 0; p < attributes[a].length; p++) {
+                var value = attributes[a][p];
+                valueSlots[p * attributes.length + a] = value < 0 ? -1 : offset + value;
+                values = max(values, value + 1);
+            }
+            offset += values;
+        }
+        return offset;
+    }
+
+    /**
+     * Every round forms the same number of pairs, so lowering all pair counts by the same amount lowers the cost of
+     * every round alike. It keeps the counters small, half of the {@code short} range is left for the new rounds.
+     */
+    private static int[] shifted(int[] pairCounts) {
+        if (pairCounts == null) {
+            return null;
+        }
+        var min = Arrays.stream(pairCounts).min().orElse(0);
+        return Arrays.stream(pairCounts).map(count -> Math.min(count - min, Short.MAX_VALUE / 2)).toArray();
+    }
+
+    private static int[] groupOfSlot(int[] groupOffsets) {
+        var groupOfSlot = new int[groupOffsets[groupOffsets.length - 1]];
+        for (var g = 0; g < groupOffsets.length - 1; g++) {
+            Arrays.fill(groupOfSlot, groupOffsets[g], groupOffsets[g + 1], g);
+        }
+        return groupOfSlot;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom rng) {
+        for (var i = values.length - 1; i > 0; i--) {
+            var j = rng.nextInt(i + 1);
+            var tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * State of a single restart. The pool and fill buffers are reused for every round, the pair history is taken over
+     * from an earlier restart if one is idle. With constraints every person
+     * has a bitset of the people it must not meet in the current round and every group a bitset of its members, so a
+     * group is infeasible for a person if the two bitsets intersect. With attributes every group counts its members per
+     * attribute value, kept up to date on every placement and swap.
+     */
+    private final class Construction {
+
+        final PairHistory history = takeHistory();
+        final PairCountHistogram histogram = new PairCountHistogram(n);
+        final int[] pool = new int[n];
+        final int[] fill = new int[targetSizes.length];
+        final int[] bestRound = new int[n];
+        final long[] forbidden = constrained ? new long[n * words] : null; // row per person, active constraints only
+        final int[] forbiddenCount = constrained ? new int[n] : null; // people a person must not meet this round
+        final long[] groupMask = constrained ? new long[targetSizes.length * words] : null; // row per group, members
+        final int[] attributeCounts = diverse ? new int[targetSizes.length * valueCount] : null; // members per value
+        int recentThreshold; // pairs whose last meeting is above this 1-based round met within the window
+        long bestDelta;
+
+        Construction() {
+            if (pairCounts != null) {
+                var k = 0;
+                for (var a = 0; a < n; a++) {
+                    for (var b = a + 1; b < n; b++) {
+                        var slot = history.slot(a, b);
+                        histogram.add(history.count(slot), pairCounts[k]);
+                        history.add(slot, pairCounts[k++]);
+                    }
+                }
+            }
+            for (var p = 0; p < pastRounds; p++) {
+                for (var group : problem.getPastRounds()[p]) {
+                    for (var i = 0; i < group.length; i++) {
+                        for (var j = i + 1; j < group.length; j++) {
+                            meet(history.slot(group[i], group[j]), p + 1);
+                        }
+                    }
+                }
+            }
+        }
+
+        PairHistory takeHistory() {
+            var idle = idleHistories.poll();
+            if (idle != null) {
+                idle.reset();
+                return idle;
+            }
+            return dense ? new DensePairHistory(n) : PairHistory.allocate(n, historyRounds, offHeap);
+        }
+
+        /**
+         * Places every person of a shuffled pool greedily into the cheapest group. With constraints the people who must
+         * not meet someone are placed first, and a round running into a dead end is reshuffled a few times before the
+         * restart gives up.
+         *
+         * @param round buffer receiving the person indices ordered by group
+         * @return the summed placement cost or {@link #INFEASIBLE} if a person could not be placed
+         */
+        long buildRound(int r, int[] round, SplittableRandom rng) {
+            recentThreshold = max(0, pastRounds + r - window);
+            if (!constrained) {
+                return placeRound(round, rng);
+            }
+            activateConstraints(r + 1);
+            for (var attempt = 0; attempt < CONSTRAINED_ROUND_ATTEMPTS; attempt++) {
+                var deltaSum = placeRound(round, rng);
+                if (deltaSum != INFEASIBLE) {
+                    return deltaSum;
+                }
+            }
+            return INFEASIBLE;
+        }
+
+        long placeRound(int[] round, SplittableRandom rng) {
+            for (var i = 0; i < n; i++) {
+                pool[i] = i;
+            }
+            shuffle(pool, rng);
+            Arrays.fill(fill, 0);
+            if (constrained) {
+                Arrays.fill(groupMask, 0);
+                constrainedLast();
+            }
+            if (diverse) {
+                Arrays.fill(attributeCounts, 0);
+            }
+            var deltaSum = 0L;
+
+            for (var i = n - 1; i >= 0; i--) {
+                var pi = pool[i];
+                var g = chooseBestGroup(pi, round);
+                if (g < 0) {
+                    return INFEASIBLE; // no feasible slot
+                }
+                round[groupOffsets[g] + fill[g]++] = pi;
+                if (constrained) {
+                    toggleMember(g, pi);
+                }
+                if (diverse) {
+                    countValues(g, pi, 1);
+                }
+                deltaSum += bestDelta;
+            }
+            return deltaSum;
+        }
+
+        int chooseBestGroup(int pi, int[] round) {
+            bestDelta = Long.MAX_VALUE;
+            var bestG = -1;
+
+            for (var g = 0; g < targetSizes.length; g++) {
+                if (fill[g] >= targetSizes[g] || constrained && conflicts(pi, g, -1)) {
+                    continue;
+                }
+                var delta = history.pairCost(pi, round, groupOffsets[g], groupOffsets[g] + fill[g], recentThreshold,
+                    PENALTY_HISTORY, PENALTY_RECENT);
+                delta += (long) PENALTY_SIZE_SKEW * fill[g];
+                if (diverse) {
+                    delta += sharedValueCost(pi, g, -1);
+                }
+
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestG = g;
+                }
+            }
+            return bestG;
+        }
+
+        /**
+         * Simulated annealing over swaps of two people of different groups of the finished round. A swap only changes
+         * the cost of the two people within their old and new group, so it is scored incrementally in O(groupSize)
+         * against the pair history instead of rescoring the round.
+         *
+         * @param round the finished round, improved in place
+         * @return the change of the round score, never positive
+         */
+        long improveRound(int[] round, SplittableRandom rng) {
+            if (localSearchMoves == 0) {
+                return 0;
+            }
+            System.arraycopy(round, 0, bestRound, 0, n);
+            var current = 0L;
+            var best = 0L;
+
+            for (var move = 0; move < localSearchMoves; move++) {
+                var i = rng.nextInt(n);
+                var gi = groupOfSlot[i];
+                var j = rng.nextInt(n - targetSizes[gi]);
+                if (j >= groupOffsets[gi]) {
+                    j += targetSizes[gi];
+                }
+                var gj = groupOfSlot[j];
+                var p = round[i];
+                var q = round[j];
+                if (constrained && (conflicts(p, gj, q) || conflicts(q, gi, p))) {
+                    continue; // the swap would group a forbidden pair
+                }
+
+                var delta = groupCost(p, round, gj, q) + groupCost(q, round, gi, p)
+                    - groupCost(p, round, gi, p) - groupCost(q, round, gj, q);
+                // linear cooling, worse swaps become less likely towards the end
+                var temperature = PENALTY_HISTORY * (1.0 - move / (double) localSearchMoves);
+                if (delta <= 0 || rng.nextDouble() < Math.exp(-delta / temperature)) {
+                    round[i] = q;
+                    round[j] = p;
+                    if (constrained) {
+                        toggleMember(gi, p);
+                        toggleMember(gj, p);
+                        toggleMember(gj, q);
+                        toggleMember(gi, q);
+                    }
+                    if (diverse) {
+                        countValues(gi, p, -1);
+                        countValues(gj, p, 1);
+                        countValues(gj, q, -1);
+                        countValues(gi, q, 1);
+                    }
+                    current += delta;
+                    if (current < best) {
+                        best = current;
+                        System.arraycopy(round, 0, bestRound, 0, n);
+                    }
+                }
+            }
+            System.arraycopy(bestRound, 0, round, 0, n);
+            return best;
+        }
+
+        /**
+         * @return the pair cost of person {@code pi} with all members of group {@code g} except {@code skip}
+         */
+        long groupCost(int pi, int[] round, int g, int skip) {
+            var cost = 0L;
+            for (var k = groupOffsets[g]; k < groupOffsets[g + 1]; k++) {
+                var qi = round[k];
+                if (qi == skip) {
+                    continue;
+                }
+                var slot = history.slot(pi, qi);
+                cost += (long) PENALTY_HISTORY * history.count(slot);
+                if (history.lastMet(slot) > recentThreshold) {
+                    cost += PENALTY_RECENT;
+                }
+            }
+            return diverse ? cost + sharedValueCost(pi, g, skip) : cost;
+        }
+
+        /**
+         * Costs the attribute values person {@code pi} shares with the members of group {@code g} except {@code skip},
+         * which is the diversity weight for every member and attribute with the same value. Looks up the value counts
+         * of the group, so it takes one step per attribute whatever the size of the group.
+         */
+        long sharedValueCost(int pi, int g, int skip) {
+            var shared = 0;
+            var row = g * valueCount;
+            for (var a = 0; a < attributeCount; a++) {
+                var value = valueSlots[pi * attributeCount + a];
+                if (value < 0) {
+                    continue;
+                }
+                shared += attributeCounts[row + value];
+                if (skip >= 0 && valueSlots[skip * attributeCount + a] == value) {
+                    shared--;
+                }
+            }
+            return (long) diversityWeight * shared;
+        }
+
+        void countValues(int g, int pi, int change) {
+            var row = g * valueCount;
+            for (var a = 0; a < attributeCount; a++) {
+                var value = valueSlots[pi * attributeCount + a];
+                if (value >= 0) {
+                    attributeCounts[row + value] += change;
+                }
+            }
+        }
+
+        /**
+         * Moves the people with an active constraint to the end of the pool, which is placed from the end, keeping the
+         * shuffled order within both parts.
+         */
+        void constrainedLast() {
+            var k = n;
+            for (var i = n - 1; i >= 0; i--) {
+                if (forbiddenCount[pool[i]] > 0) {
+                    var pi = pool[i];
+                    System.arraycopy(pool, i + 1, pool, i, --k - i);
+                    pool[k] = pi;
+                }
+            }
+        }
+
+        /**
+         * Sets the bitsets of the people to the constraints applying to the given round. A pair stays forbidden as long
+         * as any of its constraints applies.
+         *
+         * @param round 1-based round of the problem
+         */
+        void activateConstraints(int round) {
+            for (var constraint : constraints) {
+                forbid(constraint.first(), constraint.second(), false);
+                forbid(constraint.second(), constraint.first(), false);
+            }
+            for (var constraint : constraints) {
+                if (constraint.appliesTo(round)) {
+                    forbid(constraint.first(), constraint.second(), true);
+                    forbid(constraint.second(), constraint.first(), true);
+                }
+            }
+        }
+
+        void forbid(int p, int q, boolean active) {
+            var word = p * words + (q >>> 6);
+            var bit = 1L << q;
+            if (active != ((forbidden[word] & bit) != 0)) {
+                forbidden[word] ^= bit;
+                forbiddenCount[p] += active ? 1 : -1;
+            }
+        }
+
+        void toggleMember(int g, int pi) {
+            groupMask[g * words + (pi >>> 6)] ^= 1L << pi;
+        }
+
+        /**
+         * @return whether person {@code pi} must not meet a member of group {@code g} other than {@code skip}
+         */
+        boolean conflicts(int pi, int g, int skip) {
+            if (forbiddenCount[pi] == 0) {
+                return false;
+            }
+            var row = pi * words;
+            var members = g * words;
+            for (var w = 0; w < words; w++) {
+                var mask = groupMask[members + w];
+                if (skip >>> 6 == w) {
+                    mask &= ~(1L << skip);
+                }
+                if ((forbidden[row + w] & mask) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void updateHistory(int r, int[] round) {
+            for (var g = 0; g < targetSizes.length; g++) {
+                for (var i = groupOffsets[g]; i < groupOffsets[g + 1]; i++) {
+                    for (var j = i + 1; j < groupOffsets[g + 1]; j++) {
+                        meet(history.slot(round[i], round[j]), pastRounds + r + 1);
+                    }
+                }
+            }
+        }
+
+        void meet(long slot, int round) {
+            histogram.increment(history.count(slot));
+            history.meet(slot, round);
+        }
+    }
+}
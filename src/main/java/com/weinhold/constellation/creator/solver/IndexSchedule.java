@@ -0,0 +1,35 @@
+package com.weinhold.constellation.creator.solver;
+
+/**
+ * Schedule in index space. Every round is a permutation of all person indices, group {@code g} of a round occupies the
+ * slots {@code groupOffsets[g]} (inclusive) to {@code groupOffsets[g + 1]} (exclusive).
+ *
+ * @param groupOffsets start offset of every group plus the total number of people as the last element
+ * @param rounds person indices of every round, ordered by group
+ */
+public record IndexSchedule(int[] groupOffsets, int[][] rounds) {
+
+    public static int[] groupOffsets(int[] targetSizes) {
+        var offsets = new int[targetSizes.length + 1];
+        for (var g = 0; g < targetSizes.length; g++) {
+            offsets[g + 1] = offsets[g] + targetSizes[g];
+        }
+        return offsets;
+    }
+
+    public int roundCount() {
+        return rounds.length;
+    }
+
+    public int groupCount() {
+        return groupOffsets.length - 1;
+    }
+
+    public int groupStart(int group) {
+        return groupOffsets[group];
+    }
+
+    public int groupEnd(int group) {
+        return groupOffsets[group + 1];
+    }
+}
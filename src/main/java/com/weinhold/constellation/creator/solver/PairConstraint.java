@@ -0,0 +1,27 @@
+package com.weinhold.constellation.creator.solver;
+
+/**
+ * Hard rule that two people must not share a group in the rounds {@code fromRound..toRound} of the problem.
+ *
+ * @param first index of the first person
+ * @param second index of the second person
+ * @param fromRound 1-based first round the rule applies to
+ * @param toRound 1-based last round the rule applies to, inclusive
+ */
+public record PairConstraint(int first, int second, int fromRound, int toRound) {
+
+    /**
+     * @return a rule keeping the two people apart in every round
+     */
+    public static PairConstraint never(int first, int second) {
+        return new PairConstraint(first, second, 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param round 1-based round of the problem
+     * @return whether the rule applies to the round
+     */
+    public boolean appliesTo(int round) {
+        return fromRound <= round && round <= toRound;
+    }
+}
@@ -0,0 +1,19 @@
+package com.weinhold.constellation.creator.solver;
+
+import java.util.SplittableRandom;
+
+/**
+ * A single randomized restart that can be run by the {@link RestartEngine}.
+ */
+@FunctionalInterface
+public interface Restart<T> {
+
+    /**
+     * Runs the restart.
+     *
+     * @param rng the random stream reserved for this restart, never shared with other restarts
+     * @param context the running search, should be polled regularly by long restarts
+     * @return the result of the restart or {@code null} if no feasible result was found or the restart was abandoned
+     */
+    RestartResult<T> run(SplittableRandom rng, RestartContext context);
+}
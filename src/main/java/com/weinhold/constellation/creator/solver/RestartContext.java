@@ -0,0 +1,38 @@
+package com.weinhold.constellation.creator.solver;
+
+/**
+ * View of the running search that a restart can poll while it is building its result. Polling is lock-free and cheap
+ * enough to be done once per round.
+ */
+public interface RestartContext {
+
+    /**
+     * @return a context for restarts that run on their own, outside of a search
+     */
+    static RestartContext unbounded() {
+        return new RestartContext() {
+
+            @Override
+            public boolean abandoned() {
+                return false;
+            }
+
+            @Override
+            public long incumbent() {
+                return Long.MAX_VALUE;
+            }
+        };
+    }
+
+    /**
+     * @return {@code true} if the result of the restart can no longer be used, e.g. because the time budget is spent
+     *         or an optimal result has already been found
+     */
+    boolean abandoned();
+
+    /**
+     * @return the best score found by any restart so far or {@link Long#MAX_VALUE} if there is none yet; a restart
+     *         whose score can no longer get below it may give up
+     */
+    long incumbent();
+}
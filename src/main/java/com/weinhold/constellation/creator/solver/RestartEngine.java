@@ -0,0 +1,185 @@
+package com.weinhold.constellation.creator.solver;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class RestartEngine {
+
+    private final ForkJoinPool pool;
+
+    public RestartEngine(SolverProperties properties) {
+        this.pool = new ForkJoinPool(max(1, properties.getParallelism()));
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs the given number of restarts on all worker threads and returns the one with the lowest score.
+     *
+     * @param restarts number of restarts to run
+     * @param masterSeed seed from which the random streams of all restarts are derived
+     * @param restart the restart to run
+     * @return the best result or empty if no restart found a feasible result
+     * @see #findBest(SearchLimits, long, Restart)
+     */
+    public <T> Optional<RestartResult<T>> findBest(int restarts, long masterSeed, Restart<T> restart) {
+        return findBest(SearchLimits.builder().restarts(restarts).build(), masterSeed, restart);
+    }
+
+    /**
+     * Runs restarts on all worker threads, or as many as the limits allow, until the limits are reached and returns the one with the lowest score.
+     * Every restart gets its own random stream split off the master seed in restart order, and ties are broken by the
+     * restart index. Without time budget and stall limit the result therefore only depends on the master seed, never
+     * on the number of threads. Reaching the lower bound keeps that guarantee, as only restarts with a higher index are
+     * skipped, and those can at best tie.
+     * <p>
+     * When the time budget is spent no further restarts are started and running ones are abandoned, as soon as at least
+     * one result exists. The best score so far is published lock-free to all running restarts, so they can give up as
+     * soon as they can no longer beat it.
+     *
+     * @param limits limits of the search
+     * @param masterSeed seed from which the random streams of all restarts are derived
+     * @param restart the restart to run
+     * @return the best result or empty if no restart found a feasible result
+     */
+    public <T> Optional<RestartResult<T>> findBest(SearchLimits limits, long masterSeed, Restart<T> restart) {
+        var search = new Search<T>(limits, masterSeed);
+        var threads = limits.getWorkers() > 0 ? min(parallelism(), limits.getWorkers()) : parallelism();
+        var workers = max(1, min(threads, limits.getRestarts()));
+        var tasks = new ArrayList<ForkJoinTask<?>>(workers);
+        for (var w = 0; w < workers; w++) {
+            tasks.add(pool.submit(() -> search.work(restart)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        log.debug("Restart search finished after {} restarts in {} ms: {}", search.finished,
+                  (System.nanoTime() - search.start) / 1_000_000, search.stopReason);
+        return Optional.ofNullable(search.best);
+    }
+
+    /**
+     * Runs independent tasks on the worker threads of the restarts and waits until all of them are done.
+     *
+     * @param tasks number of tasks
+     * @param task the task, called once with every index {@code 0..tasks-1}
+     */
+    public void runAll(int tasks, IntConsumer task) {
+        var submitted = new ArrayList<ForkJoinTask<?>>(tasks);
+        for (var t = 0; t < tasks; t++) {
+            var index = t;
+            submitted.add(pool.submit(() -> task.accept(index)));
+        }
+        submitted.forEach(ForkJoinTask::join);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        log.debug("Shutting down restart engine");
+        pool.shutdownNow();
+    }
+
+    private static final class Search<T> {
+
+        private final SearchLimits limits;
+        private final SplittableRandom master;
+        private final long start = System.nanoTime();
+        private final long deadline; // only meaningful with a time budget
+
+        private final AtomicLong incumbent = new AtomicLong(Long.MAX_VALUE);
+        private volatile int lastIndex; // no restart above this index is started or completed
+        private volatile String stopReason = "all restarts done";
+
+        private int nextIndex;
+        private int finished;
+        private int stall;
+        private RestartResult<T> best;
+        private int bestIndex;
+
+        Search(SearchLimits limits, long masterSeed) {
+            this.limits = limits;
+            this.master = new SplittableRandom(masterSeed);
+            this.deadline = limits.getTimeBudget() == null ? 0 : start + limits.getTimeBudget().toNanos();
+            this.lastIndex = max(1, limits.getRestarts()) - 1;
+        }
+
+        void work(Restart<T> restart) {
+            while (true) {
+                int index;
+                SplittableRandom rng;
+                synchronized (this) {
+                    if (nextIndex > lastIndex || expired()) {
+                        return;
+                    }
+                    index = nextIndex++;
+                    rng = master.split();
+                }
+                var result = restart.run(rng, new RestartContext() {
+
+                    @Override
+                    public boolean abandoned() {
+                        return index > lastIndex || expired();
+                    }
+
+                    @Override
+                    public long incumbent() {
+                        return incumbent.get();
+                    }
+                });
+                offer(index, result);
+            }
+        }
+
+        private boolean expired() {
+            if (limits.getTimeBudget() != null && incumbent.get() != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                stopReason = "time budget spent";
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Records a finished restart. Restarts without result (infeasible or pruned) count as no improvement.
+         */
+        private synchronized void offer(int index, RestartResult<T> result) {
+            if (index > lastIndex) {
+                return;
+            }
+            finished++;
+            if (result != null && result.score() < incumbent.get()) {
+                stall = 0;
+            } else {
+                stall++;
+            }
+            if (result != null && (best == null || result.score() < best.score()
+                || (result.score() == best.score() && index < bestIndex))) {
+                best = result;
+                bestIndex = index;
+                incumbent.set(result.score());
+            }
+
+            if (result != null && result.score() <= limits.getLowerBound()) {
+                lastIndex = min(lastIndex, index);
+                stopReason = "lower bound reached";
+            } else if (limits.getStallRestarts() > 0 && stall >= limits.getStallRestarts()) {
+                lastIndex = min(lastIndex, nextIndex - 1);
+                stopReason = "no improvement in " + stall + " restarts";
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.weinhold.constellation.creator.solver;
+
+/**
+ * Outcome of a single randomized restart.
+ *
+ * @param value the schedule (or any other artifact) produced by the restart
+ * @param score the score of the restart, lower is better
+ */
+public record RestartResult<T>(T value, long score) {
+
+}
@@ -0,0 +1,60 @@
+package com.weinhold.constellation.creator.solver;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import lombok.NoArgsConstructor;
+
+/**
+ * The objective every solver minimizes. Placing a person into a group costs the penalties of all pairs it forms with
+ * the members already in it, the score of a schedule is the summed placement cost times 1000 plus the spread between
+ * the most and the least frequent pair as tie-break. With attributes, every attribute value a pair shares adds the
+ * diversity weight of the problem to the pair penalties; the lower bound leaves it out.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ScheduleScore {
+
+    // ---- Tunable penalties ----
+    public static final int PENALTY_HISTORY = 10; // weight for historic pair count
+    public static final int PENALTY_RECENT = 1000; // big penalty if pair met in recent window
+    public static final int PENALTY_SIZE_SKEW = 2; // gentle push to fill groups evenly
+
+    /**
+     * @return the number of pairs meeting in every round
+     */
+    public static long meetingsPerRound(int[] targetSizes) {
+        var meetings = 0L;
+        for (var size : targetSizes) {
+            meetings += size * (size - 1L) / 2;
+        }
+        return meetings;
+    }
+
+    /**
+     * @return the part of every round score that no schedule can avoid
+     */
+    public static long sizeSkewPerRound(int[] targetSizes) {
+        return PENALTY_SIZE_SKEW * meetingsPerRound(targetSizes);
+    }
+
+    /**
+     * Provable lower bound of the score of any schedule: no pair meets within the window and the pair meetings are
+     * spread as evenly as possible, so the pair counts differ by at most one. Earlier meetings only add to the history
+     * penalty, but may even out the pair counts, so they drop the tie-break.
+     *
+     * @return the lower bound, a schedule reaching it is optimal
+     */
+    public static long lowerBound(SolverProblem problem) {
+        var n = problem.getPeopleCount();
+        var pairs = n * (n - 1L) / 2;
+        if (pairs == 0) {
+            return Long.MIN_VALUE;
+        }
+        var meetings = meetingsPerRound(problem.getTargetSizes()) * problem.getRounds();
+        var base = meetings / pairs;
+        var above = meetings % pairs; // pairs that have to meet once more than the others
+        // a pair meeting c times contributes 0 + 1 + ... + (c - 1) to the history penalty of its placements
+        var history = (pairs - above) * (base * (base - 1) / 2) + above * (base * (base + 1) / 2);
+        var totalScore = sizeSkewPerRound(problem.getTargetSizes()) * problem.getRounds() + PENALTY_HISTORY * history;
+        return totalScore * 1000 + (above > 0 && !problem.hasHistory() ? 1 : 0);
+    }
+}
@@ -0,0 +1,150 @@
+package com.weinhold.constellation.creator.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.construction.ConstructionEngine;
+import com.weinhold.constellation.creator.solver.strategy.StrategySelector;
+import com.weinhold.constellation.creator.solver.strategy.StrategySelector.StrategyChoice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ScheduleSolver {
+
+    private final StrategySelector strategySelector;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @return a solver with all strategies and without metrics, for use outside the application context
+     */
+    public static ScheduleSolver standalone(SolverProperties properties) {
+        return new ScheduleSolver(StrategySelector.defaults(new RestartEngine(properties), new ConstructionEngine(),
+            properties), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Solves a problem in index space with the strategy the {@link StrategySelector} picks: problems with the shape of
+     * a known design are constructed directly, small teams are solved by exact search, all others heuristically or, if
+     * too large for a flat search, in blocks. Problems continuing earlier meetings, with pair constraints or with
+     * attributes are always solved heuristically.
+     *
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take (capped by the configuration) or {@code null} for a fixed number of
+     *            restarts
+     * @return the best schedule found
+     */
+    public IndexSchedule solve(SolverProblem problem, Duration timeBudget) {
+        var rounds = new ArrayList<int[]>(problem.getRounds());
+        solveRounds(problem, timeBudget, null).forEachRemaining(rounds::add);
+        return new IndexSchedule(IndexSchedule.groupOffsets(problem.getTargetSizes()), rounds.toArray(int[][]::new));
+    }
+
+    /**
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take or {@code null} for a fixed number of restarts
+     * @return the name of the strategy {@link #solveRounds(SolverProblem, Duration, String)} would select, to be forced
+     *         when the problem has to be solved the same way again
+     */
+    public String selectStrategy(SolverProblem problem, Duration timeBudget) {
+        return strategySelector.select(problem, timeBudget).strategy().name();
+    }
+
+    /**
+     * @see #solveRounds(SolverProblem, Duration, String)
+     */
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget) {
+        return solveRounds(problem, timeBudget, null);
+    }
+
+    /**
+     * Solves a problem round by round. Constructed rounds, the rounds of a single greedy restart without time budget
+     * and the rounds of a decomposed problem are final as soon as they are built, so the first rounds are handed out
+     * while the later ones are still being built. Everything else is solved as a whole first.
+     * <p>
+     * The chosen strategy, its predicted and its actual runtime are logged and recorded as metrics. The actual runtime
+     * only counts the time spent solving, not the time the caller spends between two rounds.
+     *
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take (capped by the configuration) or {@code null} for a fixed number of
+     *            restarts
+     * @param strategy name of the strategy to solve with or {@code null} to let the selector choose
+     * @return the rounds of the best schedule found, each one holding the person indices ordered by group
+     * @throws IllegalArgumentException if the forced strategy is unknown or does not support the problem
+     * @see #solve(SolverProblem, Duration)
+     */
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget, String strategy) {
+        var choice = strategy == null ? strategySelector.select(problem, timeBudget)
+            : strategySelector.force(strategy, problem, timeBudget);
+        var name = choice.strategy().name();
+        log.info("Strategy {} {} for {} people in {} groups over {} rounds with time budget {}, predicted {} ms", name,
+                 choice.forced() ? "forced" : "selected", problem.getPeopleCount(), problem.getTargetSizes().length,
+                 problem.getRounds(), timeBudget, choice.predicted().toMillis());
+        Counter.builder("constellation.solver.strategy.selections").tag("strategy", name)
+               .tag("forced", String.valueOf(choice.forced())).description("Problems solved per strategy")
+               .register(meterRegistry).increment();
+        Timer.builder("constellation.solver.strategy.predicted").tag("strategy", name)
+             .description("Runtime the cost model predicted").register(meterRegistry).record(choice.predicted());
+
+        var start = System.nanoTime();
+        var rounds = choice.strategy().solveRounds(problem, timeBudget);
+        return new MeasuredRounds(rounds, problem, choice, System.nanoTime() - start);
+    }
+
+    /**
+     * Adds up the time spent producing the rounds and records it once the last round is handed out.
+     */
+    private final class MeasuredRounds implements Iterator<int[]> {
+
+        private final Iterator<int[]> rounds;
+        private final SolverProblem problem;
+        private final StrategyChoice choice;
+        private long elapsed;
+        private int handedOut;
+
+        MeasuredRounds(Iterator<int[]> rounds, SolverProblem problem, StrategyChoice choice, long elapsed) {
+            this.rounds = rounds;
+            this.problem = problem;
+            this.choice = choice;
+            this.elapsed = elapsed;
+            if (problem.getRounds() == 0) {
+                record();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rounds.hasNext();
+        }
+
+        @Override
+        public int[] next() {
+            var start = System.nanoTime();
+            var round = rounds.next();
+            elapsed += System.nanoTime() - start;
+            if (++handedOut == problem.getRounds()) {
+                record();
+            }
+            return round;
+        }
+
+        private void record() {
+            var name = choice.strategy().name();
+            log.info("Strategy {} solved {} people in {} ms, predicted {} ms", name, problem.getPeopleCount(),
+                     elapsed / 1_000_000, choice.predicted().toMillis());
+            Timer.builder("constellation.solver.strategy.runtime").tag("strategy", name)
+                 .description("Time spent solving, without the time between two rounds").register(meterRegistry)
+                 .record(Duration.ofNanos(elapsed));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.weinhold.constellation.creator.solver;
+
+import java.time.Duration;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Limits of a restart search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchLimits {
+
+    private int restarts; // maximum number of restarts
+    private Duration timeBudget; // wall-clock budget, null = run all restarts
+    private int stallRestarts; // stop after this many finished restarts without improvement, 0 = never
+    @Builder.Default
+    private long lowerBound = Long.MIN_VALUE; // provable lower bound of the score, reaching it ends the search
+    private int workers; // worker threads running restarts at the same time, 0 = the parallelism of the engine
+}
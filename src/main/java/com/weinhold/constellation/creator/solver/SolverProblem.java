@@ -0,0 +1,109 @@
+package com.weinhold.constellation.creator.solver;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Label free description of a scheduling problem. People are only known by their index {@code 0..peopleCount-1}.
+ * A problem with past rounds or carried over pair counts continues a schedule: the pairs met before count as history of
+ * the rounds to solve. Pair constraints are hard: a schedule never groups the two people in the rounds they apply to.
+ * Attributes are soft: sharing a value with a group member costs the diversity weight on top of the pair penalties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SolverProblem {
+
+    private int peopleCount;
+    private int[] targetSizes;
+    private int rounds;
+    private int window;
+    private long seed;
+    private int[][][] pastRounds; // groups of already played rounds, oldest first; people who left are dropped
+    private int[] pairCounts; // meetings carried over from earlier schedules, packed upper triangle row by row
+    private List<PairConstraint> constraints; // pairs kept apart, rounds counted from the first to solve
+    private int[][] attributes; // value index of every person per attribute (department, location, ...), -1 if unknown
+    private int diversityWeight; // penalty per attribute value a person shares with a member of its group
+    private Integer restarts; // greedy restarts pinned for a reproducible schedule, null for the configured number
+    private Integer localSearchMoves; // swap attempts per person and round pinned likewise, null for the configured
+    private Integer blockSize; // people per block of a decomposed problem pinned likewise, null for the configured size
+
+    /**
+     * @return the number of already played rounds the schedule continues
+     */
+    public int pastRoundCount() {
+        return pastRounds == null ? 0 : pastRounds.length;
+    }
+
+    /**
+     * @return whether pairs may have met before the first round, so the schedule cannot start from an empty history
+     */
+    public boolean hasHistory() {
+        return pastRoundCount() > 0 || pairCounts != null;
+    }
+
+    /**
+     * @return whether some pairs must not share a group, so only the greedy search can solve the problem
+     */
+    public boolean hasConstraints() {
+        return constraints != null && !constraints.isEmpty();
+    }
+
+    /**
+     * @return whether shared attribute values are penalized, so only the greedy search can solve the problem
+     */
+    public boolean hasAttributes() {
+        return attributes != null && attributes.length > 0 && diversityWeight > 0;
+    }
+
+    /**
+     * @return whether the schedule only depends on the shape of the problem, so designs, the exact search, the
+     *         schedule library and the schedule cache can serve it
+     */
+    public boolean isShapeOnly() {
+        return !hasHistory() && !hasConstraints() && !hasAttributes();
+    }
+
+    /**
+     * @return the greedy restarts to run, the pinned ones or else the configured ones
+     */
+    public int restarts(SolverProperties properties) {
+        return restarts != null ? restarts : properties.getRestarts();
+    }
+
+    /**
+     * @return the swap attempts per person and round, the pinned ones or else the configured ones
+     */
+    public int localSearchMoves(SolverProperties properties) {
+        return localSearchMoves != null ? localSearchMoves : properties.getLocalSearchMoves();
+    }
+
+    /**
+     * @return the people per block of a decomposed problem, the pinned ones or else the configured ones
+     */
+    public int blockSize(SolverProperties properties) {
+        return blockSize != null ? blockSize : properties.getBlockSize();
+    }
+
+    /**
+     * @param n number of people
+     * @param groupSize target group size
+     * @return the sizes of the fewest groups of at most {@code groupSize} people, balanced to ±1
+     */
+    public static int[] balancedSizes(int n, int groupSize) {
+        var groups = (int) Math.ceil(n / (double) groupSize);
+        var base = n / groups;
+        var extra = n % groups;
+
+        var sizes = new int[groups];
+        for (var i = 0; i < groups; i++) {
+            sizes[i] = base + (i < extra ? 1 : 0);
+        }
+        return sizes;
+    }
+}
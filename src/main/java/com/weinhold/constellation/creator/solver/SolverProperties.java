@@ -0,0 +1,32 @@
+package com.weinhold.constellation.creator.solver;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "constellation.solver")
+public class SolverProperties {
+
+    private int restarts = 16; // randomized restarts to hunt for a better schedule
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // worker threads used for the restarts
+    private Long seed; // fixed master seed, a random one is drawn per solve if not set
+    private int window = 3; // default "no-repeat" window if the request does not specify one
+    private int localSearchMoves = 8; // swap attempts per person and round after the greedy construction, 0 disables it
+    private Duration maxTimeBudget = Duration.ofSeconds(30); // upper limit for the time budget of a request
+    private int stallRestarts = 32; // with a time budget, stop after this many restarts without improvement
+    private int exactMaxPeople = 32; // teams up to this size (at most 64) may be forced to exact search, 0 disables it
+    private long exactNodeBudget = 1_000_000; // placements the exact search tries before it keeps the best schedule
+    private int offHeapThreshold = 10_000; // from this number of people the pair history is kept off-heap
+    private int offHeapParallelism = 2; // restarts running at the same time with an off-heap pair history
+    private int decompositionThreshold = 2048; // from this number of people blocks may be solved, 0 disables it
+    private int blockSize = 512; // people per block of a decomposed problem
+    private double greedyStepNanos = 12; // cost model: time of scoring a pair in the greedy heuristic
+    private double decompositionStepNanos = 20; // cost model: time of scoring one pair in a decomposed problem
+    private double exactNodeNanos = 100; // cost model: time of trying one placement in the exact search
+    private int diversityWeight = 5; // default penalty per attribute value shared within a group, 0 ignores attributes
+    private boolean vectorScoring = false; // score groups with the Vector API, needs --add-modules jdk.incubator.vector
+
+}
@@ -0,0 +1,216 @@
+package com.weinhold.constellation.creator.solver.cache;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Solved schedules in index space by shape, so a team submitting the same shape again only needs its people mapped
+ * onto the indices. Bounded in size with least recently used eviction, optionally persisted to a local file every
+ * solved schedule is appended to.
+ */
+@Slf4j
+@Component
+public class ScheduleCache {
+
+    private static final int FILE_MAGIC = 0x43534333; // "CSC3", entries appended until the end of the file
+
+    private final ScheduleCacheProperties properties;
+    private final Map<ScheduleShape, IndexSchedule> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Object fileLock = new Object(); // serializes appends to the cache file, lookups never wait for it
+
+    public ScheduleCache(ScheduleCacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScheduleShape, IndexSchedule> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+        this.hits = Counter.builder("constellation.schedule.cache.requests").tag("result", "hit")
+                           .description("Schedule lookups answered from the cache").register(registry);
+        this.misses = Counter.builder("constellation.schedule.cache.requests").tag("result", "miss")
+                             .description("Schedule lookups that had to be solved").register(registry);
+        Gauge.builder("constellation.schedule.cache.size", this, ScheduleCache::size)
+             .description("Schedules in the cache").register(registry);
+        load();
+    }
+
+    /**
+     * @param shape shape of the requested schedule
+     * @return the cached schedule, must not be modified
+     */
+    public Optional<IndexSchedule> get(ScheduleShape shape) {
+        if (properties.getMaxEntries() <= 0) {
+            return Optional.empty();
+        }
+        IndexSchedule schedule;
+        synchronized (this) {
+            schedule = entries.get(shape);
+        }
+        (schedule == null ? misses : hits).increment();
+        return Optional.ofNullable(schedule);
+    }
+
+    /**
+     * Caches the schedule solved for the shape and appends it to the cache file if one is configured. Only the new
+     * entry is written, outside the lock of the lookups.
+     */
+    public void put(ScheduleShape shape, IndexSchedule schedule) {
+        if (properties.getMaxEntries() <= 0) {
+            return;
+        }
+        synchronized (this) {
+            entries.put(shape, schedule);
+        }
+        if (properties.getFile() != null) {
+            append(properties.getFile(), shape, schedule);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reads the entries appended to the cache file, later entries of a shape replace earlier ones and the least
+     * recently appended ones are evicted. A file holding more entries than kept, or ending in an entry cut off while it
+     * was appended, is compacted to the kept entries.
+     */
+    private void load() {
+        var file = properties.getFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        var read = 0;
+        var truncated = false;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a schedule cache file");
+            }
+            while (in.available() > 0) {
+                try {
+                    readEntry(in);
+                    read++;
+                } catch (EOFException e) {
+                    truncated = true;
+                    break;
+                }
+            }
+            log.info("Loaded {} cached schedules from {}", entries.size(), file);
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+            log.warn("Ignoring unreadable schedule cache file {}", file, e);
+            truncated = true;
+        }
+        if (truncated || read > entries.size()) {
+            compact(file);
+        }
+    }
+
+    private void readEntry(DataInputStream in) throws IOException {
+        var peopleCount = in.readInt();
+        var targetSizes = new int[in.readInt()];
+        for (var g = 0; g < targetSizes.length; g++) {
+            targetSizes[g] = in.readInt();
+        }
+        var rounds = new int[in.readInt()][peopleCount];
+        var window = in.readInt();
+        var seed = in.readBoolean() ? in.readLong() : null;
+        var solver = in.readBoolean() ? in.readUTF() : null;
+        for (var round : rounds) {
+            for (var k = 0; k < peopleCount; k++) {
+                round[k] = in.readInt();
+            }
+        }
+        entries.put(new ScheduleShape(peopleCount, targetSizes, rounds.length, window, seed, solver),
+                    new IndexSchedule(IndexSchedule.groupOffsets(targetSizes), rounds));
+    }
+
+    private void append(Path file, ScheduleShape shape, IndexSchedule schedule) {
+        synchronized (fileLock) {
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                var header = !Files.exists(file);
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, CREATE,
+                    APPEND)))) {
+                    if (header) {
+                        out.writeInt(FILE_MAGIC);
+                    }
+                    writeEntry(out, shape, schedule);
+                }
+            } catch (IOException e) {
+                log.warn("Could not append to schedule cache file {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the cache file with the kept entries, only done while the cache is constructed.
+     */
+    private void compact(Path file) {
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                for (var entry : entries.entrySet()) {
+                    writeEntry(out, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Compacted schedule cache file {} to {} schedules", file, entries.size());
+        } catch (IOException e) {
+            log.warn("Could not write schedule cache file {}", file, e);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, ScheduleShape shape, IndexSchedule schedule)
+        throws IOException {
+        out.writeInt(shape.peopleCount());
+        out.writeInt(shape.targetSizes().length);
+        for (var size : shape.targetSizes()) {
+            out.writeInt(size);
+        }
+        out.writeInt(shape.rounds());
+        out.writeInt(shape.window());
+        out.writeBoolean(shape.seed() != null);
+        if (shape.seed() != null) {
+            out.writeLong(shape.seed());
+        }
+        out.writeBoolean(shape.solver() != null);
+        if (shape.solver() != null) {
+            out.writeUTF(shape.solver());
+        }
+        for (var round : schedule.rounds()) {
+            for (var person : round) {
+                out.writeInt(person);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.weinhold.constellation.creator.solver.cache;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "constellation.cache")
+public class ScheduleCacheProperties {
+
+    private int maxEntries = 256; // schedules kept, the least recently used one is evicted first; 0 disables the cache
+    private Path file; // file the cache is loaded from at startup and every new schedule is appended to, none if not set
+
+}
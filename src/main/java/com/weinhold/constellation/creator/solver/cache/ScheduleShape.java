@@ -0,0 +1,60 @@
+package com.weinhold.constellation.creator.solver.cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * Everything a schedule in index space depends on. Requests without a fixed seed share the key without seed, any
+ * schedule solved for the shape is as good as a freshly solved one for them. A schedule solved by a forced strategy is
+ * only as good as another one solved the same way, so the strategy and the settings it reads are part of the key.
+ *
+ * @param peopleCount number of people
+ * @param targetSizes size of every group
+ * @param rounds number of rounds
+ * @param window "no-repeat" window
+ * @param seed the fixed seed or {@code null}
+ * @param solver the forced strategy with its restarts, local-search moves and block size, or {@code null} for any
+ */
+public record ScheduleShape(int peopleCount, int[] targetSizes, int rounds, int window, Long seed, String solver) {
+
+    public ScheduleShape(int peopleCount, int[] targetSizes, int rounds, int window, Long seed) {
+        this(peopleCount, targetSizes, rounds, window, seed, null);
+    }
+
+    public static ScheduleShape of(SolverProblem problem, boolean seeded) {
+        return of(problem, seeded, null);
+    }
+
+    /**
+     * @param problem the problem to solve
+     * @param seeded whether the schedule has to be solved for the seed of the problem
+     * @param strategy the forced strategy or {@code null}
+     * @return the shape of the problem, with the settings of the problem if a strategy is forced
+     */
+    public static ScheduleShape of(SolverProblem problem, boolean seeded, String strategy) {
+        return new ScheduleShape(problem.getPeopleCount(), problem.getTargetSizes().clone(), problem.getRounds(),
+            problem.getWindow(), seeded ? problem.getSeed() : null, strategy == null ? null
+                : strategy + "/" + problem.getRestarts() + "/" + problem.getLocalSearchMoves() + "/"
+                    + problem.getBlockSize());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ScheduleShape other && peopleCount == other.peopleCount && rounds == other.rounds
+            && window == other.window && Arrays.equals(targetSizes, other.targetSizes) && Objects.equals(seed, other.seed)
+            && Objects.equals(solver, other.solver);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(peopleCount, Arrays.hashCode(targetSizes), rounds, window, seed, solver);
+    }
+
+    @Override
+    public String toString() {
+        return peopleCount + " people in " + Arrays.toString(targetSizes) + " for " + rounds + " rounds, window " + window
+            + (seed == null ? "" : ", seed " + seed) + (solver == null ? "" : ", solved by " + solver);
+    }
+}
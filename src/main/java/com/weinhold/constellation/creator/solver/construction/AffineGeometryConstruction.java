@@ -0,0 +1,90 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * Lines of the affine geometry AG(d, q) for {@code n = q^d} people in groups of {@code q}, {@code q} a prime power.
+ * All lines with the same direction form a parallel class, i.e. a round, and every pair lies on exactly one line.
+ * This covers affine planes ({@code d = 2}, e.g. 25 people in 5 groups) and resolvable triple systems such as
+ * 27 people in 9 groups of 3.
+ */
+class AffineGeometryConstruction implements Construction {
+
+    @Override
+    public String name() {
+        return "affine geometry";
+    }
+
+    @Override
+    public Optional<int[][]> cycle(SolverProblem problem) {
+        var n = problem.getPeopleCount();
+        var sizes = problem.getTargetSizes();
+        var q = sizes[0];
+        if (q < 2 || Arrays.stream(sizes).anyMatch(size -> size != q)) {
+            return Optional.empty();
+        }
+        var d = 0;
+        for (var rest = n; rest > 1; rest /= q) {
+            if (rest % q != 0) {
+                return Optional.empty();
+            }
+            d++;
+        }
+        if (d < 2) {
+            return Optional.empty();
+        }
+        var dimension = d;
+        return GaloisField.of(q).map(field -> parallelClasses(field, dimension, n));
+    }
+
+    private int[][] parallelClasses(GaloisField field, int d, int n) {
+        var q = field.size();
+        var rounds = new ArrayList<int[]>();
+        for (var direction = 1; direction < n; direction++) {
+            if (leadingCoordinate(direction, q) != 1) {
+                continue; // every other direction is a multiple of one with leading coordinate 1
+            }
+            var round = new int[n];
+            var assigned = new boolean[n];
+            var slot = 0;
+            for (var point = 0; point < n; point++) {
+                if (assigned[point]) {
+                    continue;
+                }
+                for (var t = 0; t < q; t++) {
+                    var member = translate(field, d, point, t, direction);
+                    assigned[member] = true;
+                    round[slot++] = member;
+                }
+            }
+            rounds.add(round);
+        }
+        return rounds.toArray(int[][]::new);
+    }
+
+    /**
+     * @return {@code point + t * direction}, both vectors encoded as base-q numbers
+     */
+    private int translate(GaloisField field, int d, int point, int t, int direction) {
+        var q = field.size();
+        var result = 0;
+        for (int i = 0, place = 1; i < d; i++, place *= q, point /= q, direction /= q) {
+            result += field.add(point % q, field.multiply(t, direction % q)) * place;
+        }
+        return result;
+    }
+
+    private int leadingCoordinate(int vector, int q) {
+        var leading = 0;
+        for (var rest = vector; rest > 0; rest /= q) {
+            if (rest % q != 0) {
+                leading = rest % q;
+            }
+        }
+        return leading;
+    }
+}
@@ -0,0 +1,22 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import java.util.Optional;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * Direct construction of a schedule for problems of a known shape, no search involved.
+ */
+interface Construction {
+
+    String name();
+
+    /**
+     * Builds one cycle of rounds in which every pair meets exactly once (or at most once if people are left over).
+     * Repeating the cycle keeps the pair counts within one of each other.
+     *
+     * @param problem the problem to solve
+     * @return the rounds of the cycle, ordered by group, or empty if the problem does not have the required shape
+     */
+    Optional<int[][]> cycle(SolverProblem problem);
+}
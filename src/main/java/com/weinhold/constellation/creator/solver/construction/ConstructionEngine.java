@@ -0,0 +1,56 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class ConstructionEngine {
+
+    private final List<Construction> constructions = List.of(new RoundRobinConstruction(), new AffineGeometryConstruction());
+
+    /**
+     * Builds the schedule directly if the problem has the shape of a known resolvable design. The cycle of the design is
+     * repeated, so every pair meets as evenly as possible. A construction is only used if its cycle is longer than the
+     * "no-repeat" window; then the schedule reaches the lower bound of the score and is optimal.
+     *
+     * @param problem the problem to solve
+     * @return the constructed schedule or empty if no construction fits the problem
+     */
+    public Optional<ConstructedSchedule> construct(SolverProblem problem) {
+        for (var construction : constructions) {
+            var cycle = construction.cycle(problem);
+            if (cycle.isEmpty()) {
+                continue;
+            }
+            if (cycle.get().length <= problem.getWindow()) {
+                log.debug("{} cycle of {} rounds does not cover window {}", construction.name(), cycle.get().length,
+                          problem.getWindow());
+                continue;
+            }
+            var rounds = new int[problem.getRounds()][];
+            for (var r = 0; r < rounds.length; r++) {
+                rounds[r] = cycle.get()[r % cycle.get().length]; // repeated rounds share the arrays of the cycle
+            }
+            var schedule = new IndexSchedule(IndexSchedule.groupOffsets(problem.getTargetSizes()), rounds);
+            return Optional.of(new ConstructedSchedule(construction.name(), cycle.get().length, schedule));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param name name of the construction used
+     * @param cycleLength rounds after which every pair has met once
+     * @param schedule the constructed schedule
+     */
+    public record ConstructedSchedule(String name, int cycleLength, IndexSchedule schedule) {
+
+    }
+}
@@ -0,0 +1,116 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import java.util.Optional;
+
+/**
+ * Finite field GF(p^k). Elements are the numbers {@code 0..q-1}, read as the base-p digits of a polynomial over GF(p).
+ * Multiplication uses log/antilog tables of a primitive element, which is found by trying monic polynomials of degree
+ * k until {@code x} has order {@code q - 1}.
+ */
+final class GaloisField {
+
+    private final int p;
+    private final int q;
+    private final int[] log;
+    private final int[] exp;
+
+    private GaloisField(int p, int k) {
+        this.p = p;
+        this.q = pow(p, k);
+        this.log = new int[q];
+        this.exp = new int[q - 1];
+        for (var modulus = 0; modulus < q; modulus++) {
+            if (tryPrimitive(k, modulus)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("No primitive polynomial found for GF(" + q + ")");
+    }
+
+    /**
+     * @return the field with {@code q} elements or empty if {@code q} is not a prime power
+     */
+    static Optional<GaloisField> of(int q) {
+        if (q < 2) {
+            return Optional.empty();
+        }
+        var p = smallestPrimeFactor(q);
+        var k = 0;
+        for (var rest = q; rest > 1; rest /= p) {
+            if (rest % p != 0) {
+                return Optional.empty();
+            }
+            k++;
+        }
+        return Optional.of(new GaloisField(p, k));
+    }
+
+    int size() {
+        return q;
+    }
+
+    int add(int a, int b) {
+        var sum = 0;
+        for (var place = 1; a > 0 || b > 0; place *= p, a /= p, b /= p) {
+            sum += ((a % p + b % p) % p) * place;
+        }
+        return sum;
+    }
+
+    int multiply(int a, int b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return exp[(log[a] + log[b]) % (q - 1)];
+    }
+
+    /**
+     * Fills the tables with the powers of {@code x} modulo the monic polynomial {@code x^k + modulus}, where the lower
+     * coefficients are the base-p digits of {@code modulus}.
+     *
+     * @return {@code true} if {@code x} is primitive, i.e. its powers run through all non-zero elements
+     */
+    private boolean tryPrimitive(int k, int modulus) {
+        var seen = new boolean[q];
+        var element = 1;
+        for (var i = 0; i < q - 1; i++) {
+            if (seen[element]) {
+                return false;
+            }
+            seen[element] = true;
+            exp[i] = element;
+            log[element] = i;
+            element = timesX(element, k, modulus);
+        }
+        return element == 1;
+    }
+
+    private int timesX(int element, int k, int modulus) {
+        var high = element / pow(p, k - 1); // coefficient that overflows into x^k
+        var shifted = (element % pow(p, k - 1)) * p;
+        // x^k = -(modulus), so subtract high * modulus digit by digit
+        var result = 0;
+        for (var place = 1; place < q; place *= p, shifted /= p, modulus /= p) {
+            var digit = ((shifted % p) - high * (modulus % p)) % p;
+            result += (digit < 0 ? digit + p : digit) * place;
+        }
+        return result;
+    }
+
+    private static int smallestPrimeFactor(int n) {
+        for (var f = 2; f * f <= n; f++) {
+            if (n % f == 0) {
+                return f;
+            }
+        }
+        return n;
+    }
+
+    private static int pow(int base, int exponent) {
+        var result = 1;
+        for (var i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
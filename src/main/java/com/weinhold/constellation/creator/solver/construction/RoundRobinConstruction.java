@@ -0,0 +1,47 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import java.util.Optional;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * Circle method for groups of two: one person stays fixed while all others rotate around, which yields a 1-factorization
+ * of {@code n - 1} rounds. An odd number of people is handled with a phantom partner, whoever is paired with it forms
+ * the single group of one.
+ */
+class RoundRobinConstruction implements Construction {
+
+    @Override
+    public String name() {
+        return "round robin";
+    }
+
+    @Override
+    public Optional<int[][]> cycle(SolverProblem problem) {
+        var n = problem.getPeopleCount();
+        var sizes = problem.getTargetSizes();
+        for (var g = 0; g < sizes.length; g++) {
+            var expected = (n % 2 == 1 && g == sizes.length - 1) ? 1 : 2;
+            if (sizes[g] != expected) {
+                return Optional.empty();
+            }
+        }
+
+        var m = n % 2 == 0 ? n : n + 1; // person m - 1 is the phantom for odd n
+        var cycle = new int[m - 1][];
+        for (var r = 0; r < m - 1; r++) {
+            var round = new int[n];
+            var slot = 0;
+            for (var k = 1; k < m / 2; k++) {
+                round[slot++] = (r + k) % (m - 1);
+                round[slot++] = (r - k + m - 1) % (m - 1);
+            }
+            round[slot++] = r;
+            if (n == m) {
+                round[slot] = m - 1;
+            }
+            cycle[r] = round;
+        }
+        return Optional.of(cycle);
+    }
+}
@@ -0,0 +1,234 @@
+package com.weinhold.constellation.creator.solver.decomposition;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.weinhold.constellation.creator.solver.GreedySolver;
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.PairConstraint;
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Solves problems too large for a flat search in blocks of about {@link SolverProperties#getBlockSize()} people. Every
+ * block owns a consecutive run of the groups. Its people are anchors, who stay in the block for a cycle of as many
+ * rounds as there are blocks, and rovers, who move on to the next block every round, so within a cycle every anchor
+ * meets every set of rovers once. Each cycle starts from a fresh random partition.
+ * <p>
+ * Every round the blocks are solved in parallel by a single greedy restart, with the pairs of the block met in earlier
+ * rounds as history. That history is a {@link PartnerLog}, so memory and time grow linearly with the people for a
+ * fixed block size.
+ */
+@Slf4j
+public class DecompositionSolver {
+
+    private final SolverProblem problem;
+    private final SolverProperties properties;
+    private final RestartEngine restartEngine;
+    private final int n;
+    private final int window;
+    private final int[] groupOffsets;
+    private final int blocks;
+    private final int[] blockGroups; // first group of every block and the end of the last one
+    private final int rovers; // people of every block moving on to the next block every round
+
+    public DecompositionSolver(SolverProblem problem, SolverProperties properties, RestartEngine restartEngine) {
+        this.problem = problem;
+        this.properties = properties;
+        this.restartEngine = restartEngine;
+        this.n = problem.getPeopleCount();
+        this.window = max(0, problem.getWindow());
+        this.groupOffsets = IndexSchedule.groupOffsets(problem.getTargetSizes());
+        var groups = problem.getTargetSizes().length;
+        this.blocks = blockCount(n, groups, problem.blockSize(properties));
+        this.blockGroups = IntStream.rangeClosed(0, blocks).map(b -> (int) ((long) b * groups / blocks)).toArray();
+        this.rovers = blocks < 2 ? 0 : IntStream.range(0, blocks).map(this::blockSize).min().orElse(0) / 2;
+    }
+
+    /**
+     * @param peopleCount number of people
+     * @param groups number of groups
+     * @param blockSize targeted people per block
+     * @return the number of blocks a problem is split into, each owning at least one group
+     */
+    public static int blockCount(int peopleCount, int groups, int blockSize) {
+        return max(1, min(groups, Math.ceilDiv(peopleCount, max(2, blockSize))));
+    }
+
+    /**
+     * Solves the problem round by round, a round is final as soon as it is returned.
+     *
+     * @return the rounds of the schedule, each one holding the person indices ordered by group
+     */
+    public Iterator<int[]> rounds() {
+        log.info("{} people decomposed into {} blocks of about {} people with {} rovers each", n, blocks, n / blocks,
+                 rovers);
+        var rng = new SplittableRandom(problem.getSeed());
+        var partners = new PartnerLog(n);
+        var order = IntStream.range(0, n).toArray();
+        var blockOf = new int[n];
+        var localIndex = new int[n];
+        return new Iterator<>() {
+
+            private int r;
+
+            @Override
+            public boolean hasNext() {
+                return r < problem.getRounds();
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (r % blocks == 0) {
+                    shuffle(order, rng);
+                }
+                var members = new int[blocks][];
+                var streams = new SplittableRandom[blocks];
+                for (var b = 0; b < blocks; b++) {
+                    members[b] = members(order, b, r % blocks);
+                    for (var k = 0; k < members[b].length; k++) {
+                        blockOf[members[b][k]] = b;
+                        localIndex[members[b][k]] = k;
+                    }
+                    streams[b] = rng.split();
+                }
+                var round = new int[n];
+                var roundNumber = ++r;
+                restartEngine.runAll(blocks, b -> solveBlock(b, members[b], roundNumber, partners, blockOf, localIndex,
+                    streams[b], round));
+                record(round, roundNumber, partners);
+                return round;
+            }
+        };
+    }
+
+    private int blockSize(int b) {
+        return groupOffsets[blockGroups[b + 1]] - groupOffsets[blockGroups[b]];
+    }
+
+    /**
+     * The anchors of all blocks come first in the order, the rovers of all blocks behind them.
+     *
+     * @param shift how many blocks the rovers moved on in the current cycle
+     * @return the people of block {@code b} in the current round
+     */
+    private int[] members(int[] order, int b, int shift) {
+        var anchorStart = 0;
+        for (var c = 0; c < b; c++) {
+            anchorStart += blockSize(c) - rovers;
+        }
+        var anchors = blockSize(b) - rovers;
+        var roverStart = n - blocks * rovers + (b + shift) % blocks * rovers;
+        var members = new int[blockSize(b)];
+        System.arraycopy(order, anchorStart, members, 0, anchors);
+        System.arraycopy(order, roverStart, members, anchors, rovers);
+        return members;
+    }
+
+    /**
+     * Solves a single round of a block and writes it into the groups the block owns. Meetings of the block within the
+     * window are replayed as past rounds, all earlier ones are carried over as pair counts.
+     */
+    private void solveBlock(int b, int[] members, int round, PartnerLog partners, int[] blockOf, int[] localIndex,
+        SplittableRandom rng, int[] result) {
+        var s = members.length;
+        var recent = min(window, round - 1);
+        var pairCounts = new int[s * (s - 1) / 2];
+        var pastMeetings = new ArrayList<List<int[]>>(recent);
+        for (var t = 0; t < recent; t++) {
+            pastMeetings.add(new ArrayList<>());
+        }
+        for (var i = 0; i < s; i++) {
+            var a = members[i];
+            for (var k = 0; k < partners.size(a); k++) {
+                var partner = partners.partner(a, k);
+                if (blockOf[partner] != b || localIndex[partner] <= i) {
+                    continue;
+                }
+                var j = localIndex[partner];
+                var met = partners.round(a, k);
+                if (met >= round - recent) {
+                    pastMeetings.get(met - (round - recent)).add(new int[] { i, j });
+                } else {
+                    pairCounts[i * (2 * s - i - 1) / 2 + j - i - 1]++;
+                }
+            }
+        }
+        var block = SolverProblem.builder()
+                                 .peopleCount(s)
+                                 .targetSizes(Arrays.copyOfRange(problem.getTargetSizes(), blockGroups[b], blockGroups[b + 1]))
+                                 .rounds(1)
+                                 .window(window)
+                                 .seed(problem.getSeed())
+                                 .pastRounds(pastMeetings.stream().map(meetings -> meetings.toArray(int[][]::new))
+                                                         .toArray(int[][][]::new))
+                                 .pairCounts(pairCounts)
+                                 .constraints(constraintsOf(b, round, blockOf, localIndex))
+                                 .attributes(attributesOf(members))
+                                 .diversityWeight(problem.getDiversityWeight())
+                                 .localSearchMoves(problem.getLocalSearchMoves())
+                                 .build();
+        var local = new GreedySolver(block, properties).rounds(rng).next();
+        var offset = groupOffsets[blockGroups[b]];
+        for (var k = 0; k < s; k++) {
+            result[offset + k] = members[local[k]];
+        }
+    }
+
+    /**
+     * @return the constraints of the round between two people of block {@code b}, on their indices within the block
+     */
+    private List<PairConstraint> constraintsOf(int b, int round, int[] blockOf, int[] localIndex) {
+        if (!problem.hasConstraints()) {
+            return null;
+        }
+        return problem.getConstraints().stream()
+                      .filter(constraint -> constraint.appliesTo(round) && blockOf[constraint.first()] == b
+                          && blockOf[constraint.second()] == b)
+                      .map(constraint -> PairConstraint.never(localIndex[constraint.first()],
+                          localIndex[constraint.second()]))
+                      .toList();
+    }
+
+    private int[][] attributesOf(int[] members) {
+        if (!problem.hasAttributes()) {
+            return null;
+        }
+        return Arrays.stream(problem.getAttributes())
+                     .map(values -> Arrays.stream(members).map(person -> values[person]).toArray())
+                     .toArray(int[][]::new);
+    }
+
+    private void record(int[] round, int roundNumber, PartnerLog partners) {
+        for (var g = 0; g + 1 < groupOffsets.length; g++) {
+            for (var i = groupOffsets[g]; i < groupOffsets[g + 1]; i++) {
+                for (var j = i + 1; j < groupOffsets[g + 1]; j++) {
+                    partners.meet(round[i], round[j], roundNumber);
+                }
+            }
+        }
+    }
+
+    private static void shuffle(int[] values, SplittableRandom rng) {
+        for (var i = values.length - 1; i > 0; i--) {
+            var j = rng.nextInt(i + 1);
+            var tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.weinhold.constellation.creator.solver.decomposition;
+
+import java.util.Arrays;
+
+/**
+ * Sparse pair history of a decomposed problem: every person keeps the list of the partners it met and the round of
+ * every meeting. The memory grows with the meetings, linear in the number of people, instead of with the pairs.
+ */
+final class PartnerLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[][] partners;
+    private final int[][] rounds;
+    private final int[] sizes;
+
+    PartnerLog(int peopleCount) {
+        this.partners = new int[peopleCount][];
+        this.rounds = new int[peopleCount][];
+        this.sizes = new int[peopleCount];
+    }
+
+    /**
+     * Records that two people met.
+     *
+     * @param round 1-based round of the meeting
+     */
+    void meet(int a, int b, int round) {
+        add(a, b, round);
+        add(b, a, round);
+    }
+
+    int size(int person) {
+        return sizes[person];
+    }
+
+    int partner(int person, int k) {
+        return partners[person][k];
+    }
+
+    int round(int person, int k) {
+        return rounds[person][k];
+    }
+
+    private void add(int person, int partner, int round) {
+        if (partners[person] == null) {
+            partners[person] = new int[INITIAL_CAPACITY];
+            rounds[person] = new int[INITIAL_CAPACITY];
+        } else if (sizes[person] == partners[person].length) {
+            partners[person] = Arrays.copyOf(partners[person], 2 * sizes[person]);
+            rounds[person] = Arrays.copyOf(rounds[person], 2 * sizes[person]);
+        }
+        partners[person][sizes[person]] = partner;
+        rounds[person][sizes[person]++] = round;
+    }
+}
@@ -0,0 +1,405 @@
+package com.weinhold.constellation.creator.solver.exact;
+
+import static com.weinhold.constellation.creator.solver.ScheduleScore.PENALTY_HISTORY;
+import static com.weinhold.constellation.creator.solver.ScheduleScore.PENALTY_RECENT;
+import static java.lang.Math.max;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.RestartResult;
+import com.weinhold.constellation.creator.solver.ScheduleScore;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * Exact depth-first branch and bound over complete schedules for teams that fit into a {@code long}. Every person is a
+ * bit, so a group, the recent partners and every bit of the pair counters of a person are single words and the cost
+ * of placing a person into a group is a handful of AND and popcount operations.
+ * <p>
+ * Symmetries are broken by a fixed first round and by placing people in index order into groups, where of several
+ * empty groups of the same size only the first one is tried. The placements of a person are tried cheapest first, so
+ * the first complete schedule is a greedy one, and a branch is cut as soon as its score plus a lower bound of the
+ * remaining rounds can no longer beat the best schedule so far. The search is stopped after a budget of nodes, so the
+ * same problem and incumbent always give the same schedule, and optionally by a time cap. A schedule is only known to
+ * be optimal if the search completed or it reached the lower bound of the score.
+ */
+public class ExactSolver {
+
+    public static final int MAX_PEOPLE = Long.SIZE;
+
+    private static final int CLOCK_INTERVAL = (1 << 12) - 1; // nodes between two looks at the clock
+
+    private final SolverProblem problem;
+    private final int n;
+    private final int rounds;
+    private final int window;
+    private final int[] sizes;
+    private final int groups;
+    private final int[] groupOffsets;
+    private final long sizeSkewPerRound;
+    private final long meetingsPerRound;
+
+    // ---- search state ----
+    private final long[][] counterBits; // [bit][person] bit-sliced pair counters, bit b of count(a, c) is bit c of [b][a]
+    private final long[] countHistogram; // number of pairs per pair count
+    private final long[][] partners; // [round][person] people met in that round
+    private final long[][] recent; // [round][person] people met within the window before that round
+    private final long[][] groupMasks; // [round][group]
+    private final int[][] fill; // [round][group]
+    private final long[] roundCost; // [round] history and recent penalty of the placements so far
+    private final long[] prefix; // [round] score of all rounds before it
+    private final long[] remainingBound; // [round] lower bound of the history penalty of this and all later rounds
+
+    // ---- per depth (round * n + person) ----
+    private final int[][] candidates;
+    private final long[][] deltas;
+    private final int[] candidateCount;
+    private final int[] cursor;
+    private final int[] placedGroup;
+    private final long[] placedDelta;
+
+    public ExactSolver(SolverProblem problem) {
+        if (problem.getPeopleCount() > MAX_PEOPLE) {
+            throw new IllegalArgumentException("The exact solver supports at most " + MAX_PEOPLE + " people");
+        }
+        this.problem = problem;
+        this.n = problem.getPeopleCount();
+        this.rounds = problem.getRounds();
+        this.window = max(0, problem.getWindow());
+        this.sizes = problem.getTargetSizes();
+        this.groups = sizes.length;
+        this.groupOffsets = IndexSchedule.groupOffsets(sizes);
+        this.sizeSkewPerRound = ScheduleScore.sizeSkewPerRound(sizes);
+        this.meetingsPerRound = ScheduleScore.meetingsPerRound(sizes);
+
+        this.counterBits = new long[Integer.SIZE - Integer.numberOfLeadingZeros(max(1, rounds))][n];
+        this.countHistogram = new long[rounds + 1];
+        this.partners = new long[rounds][n];
+        this.recent = new long[rounds][n];
+        this.groupMasks = new long[rounds][groups];
+        this.fill = new int[rounds][groups];
+        this.roundCost = new long[rounds];
+        this.prefix = new long[rounds + 1];
+        this.remainingBound = new long[rounds + 1];
+
+        var depths = rounds * n;
+        this.candidates = new int[depths][groups];
+        this.deltas = new long[depths][groups];
+        this.candidateCount = new int[depths];
+        this.cursor = new int[depths];
+        this.placedGroup = new int[depths];
+        this.placedDelta = new long[depths];
+    }
+
+    /**
+     * Searches for a schedule beating the incumbent until the search space is exhausted, the lower bound is reached or
+     * the node budget is spent. Not thread-safe, every search needs its own solver.
+     *
+     * @param incumbent best known schedule, e.g. of the heuristic, or {@code null}
+     * @param nodeBudget placements tried before the search is stopped
+     * @return the best schedule found or the incumbent if none beat it
+     */
+    public Solution solve(RestartResult<IndexSchedule> incumbent, long nodeBudget) {
+        return solve(incumbent, nodeBudget, null);
+    }
+
+    /**
+     * Like {@link #solve(RestartResult, long)}, but also stops once the time cap is hit, which makes the result depend
+     * on the speed of the machine.
+     *
+     * @param incumbent best known schedule, e.g. of the heuristic, or {@code null}
+     * @param nodeBudget placements tried before the search is stopped
+     * @param timeCap time after which the search is stopped or {@code null}
+     * @return the best schedule found or the incumbent if none beat it
+     */
+    public Solution solve(RestartResult<IndexSchedule> incumbent, long nodeBudget, Duration timeCap) {
+        var deadline = timeCap == null ? 0 : System.nanoTime() + timeCap.toNanos();
+        var lowerBound = ScheduleScore.lowerBound(problem);
+        var search = new Search(incumbent);
+        if (n == 0 || rounds == 0 || search.bestScore <= lowerBound) {
+            return search.solution(true);
+        }
+
+        var pairs = n * (n - 1L) / 2;
+        countHistogram[0] = pairs;
+        startRound(0);
+        for (var g = 0; g < groups; g++) {
+            groupMasks[0][g] = bits(groupOffsets[g], groupOffsets[g + 1]);
+            fill[0][g] = sizes[g];
+        }
+        commitRound(0);
+        if (rounds == 1) {
+            search.leaf();
+            return search.solution(true);
+        }
+
+        var r = 1;
+        var i = 0;
+        startRound(r);
+        expand(r, i);
+        var nodes = 0L;
+        while (true) {
+            var d = r * n + i;
+            if (cursor[d] == candidateCount[d]) {
+                // all placements of person i tried, back to the previous person
+                if (i > 0) {
+                    unplace(r, --i);
+                    continue;
+                }
+                if (r == 1) {
+                    return search.solution(true); // search space exhausted
+                }
+                uncommitRound(--r);
+                unplace(r, i = n - 1);
+                continue;
+            }
+            if (++nodes > nodeBudget
+                || timeCap != null && (nodes & CLOCK_INTERVAL) == 0 && System.nanoTime() - deadline > 0) {
+                return search.solution(search.bestScore <= lowerBound);
+            }
+
+            var k = cursor[d]++;
+            var historyBound = max(roundCost[r] + deltas[d][k], remainingBound[r]);
+            if ((prefix[r] + sizeSkewPerRound * (rounds - r) + historyBound) * 1000 >= search.bestScore) {
+                cursor[d] = candidateCount[d]; // candidates are sorted, the remaining ones are no cheaper
+                continue;
+            }
+            place(r, i, candidates[d][k], deltas[d][k]);
+            if (i + 1 < n) {
+                expand(r, ++i);
+                continue;
+            }
+
+            commitRound(r);
+            if (r + 1 == rounds) {
+                search.leaf();
+                if (search.bestScore <= lowerBound) {
+                    return search.solution(true);
+                }
+            } else if ((prefix[r + 1] + sizeSkewPerRound * (rounds - r - 1) + remainingBound[r + 1]) * 1000
+                < search.bestScore) {
+                startRound(++r);
+                expand(r, i = 0);
+                continue;
+            }
+            uncommitRound(r);
+            unplace(r, i);
+        }
+    }
+
+    private void startRound(int r) {
+        for (var a = 0; a < n; a++) {
+            var met = 0L;
+            for (var before = max(0, r - window); before < r; before++) {
+                met |= partners[before][a];
+            }
+            recent[r][a] = met;
+        }
+        Arrays.fill(groupMasks[r], 0);
+        Arrays.fill(fill[r], 0);
+        roundCost[r] = 0;
+    }
+
+    /**
+     * Collects the groups person {@code i} can join in round {@code r}, sorted by the cost of joining.
+     */
+    private void expand(int r, int i) {
+        var d = r * n + i;
+        var count = 0;
+        for (var g = 0; g < groups; g++) {
+            if (fill[r][g] == sizes[g] || (fill[r][g] == 0 && earlierEmptyGroupOfSameSize(r, g))) {
+                continue;
+            }
+            var delta = joinCost(r, i, groupMasks[r][g]);
+            var k = count++;
+            while (k > 0 && deltas[d][k - 1] > delta) {
+                deltas[d][k] = deltas[d][k - 1];
+                candidates[d][k] = candidates[d][k - 1];
+                k--;
+            }
+            deltas[d][k] = delta;
+            candidates[d][k] = g;
+        }
+        candidateCount[d] = count;
+        cursor[d] = 0;
+    }
+
+    private boolean earlierEmptyGroupOfSameSize(int r, int g) {
+        for (var h = 0; h < g; h++) {
+            if (fill[r][h] == 0 && sizes[h] == sizes[g]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the history and recent penalty of person {@code a} joining the given members
+     */
+    private long joinCost(int r, int a, long members) {
+        var history = 0L;
+        for (var b = 0; b < counterBits.length; b++) {
+            history += (long) Long.bitCount(members & counterBits[b][a]) << b;
+        }
+        return PENALTY_HISTORY * history + (long) PENALTY_RECENT * Long.bitCount(members & recent[r][a]);
+    }
+
+    private void place(int r, int i, int g, long delta) {
+        var d = r * n + i;
+        groupMasks[r][g] |= 1L << i;
+        fill[r][g]++;
+        roundCost[r] += delta;
+        placedGroup[d] = g;
+        placedDelta[d] = delta;
+    }
+
+    private void unplace(int r, int i) {
+        var d = r * n + i;
+        var g = placedGroup[d];
+        groupMasks[r][g] &= ~(1L << i);
+        fill[r][g]--;
+        roundCost[r] -= placedDelta[d];
+    }
+
+    /**
+     * Adds the pairs of the complete round {@code r} to the counters and bounds the penalty of all later rounds.
+     */
+    private void commitRound(int r) {
+        for (var g = 0; g < groups; g++) {
+            var members = groupMasks[r][g];
+            for (var rest = members; rest != 0; rest &= rest - 1) {
+                var a = Long.numberOfTrailingZeros(rest);
+                var met = members & ~(1L << a);
+                partners[r][a] = met;
+                for (var later = met & -(2L << a); later != 0; later &= later - 1) {
+                    var c = pairCount(a, Long.numberOfTrailingZeros(later));
+                    countHistogram[c]--;
+                    countHistogram[c + 1]++;
+                }
+                increment(a, met);
+            }
+        }
+        prefix[r + 1] = prefix[r] + sizeSkewPerRound + roundCost[r];
+        remainingBound[r + 1] = waterFill((rounds - r - 1) * meetingsPerRound);
+    }
+
+    private void uncommitRound(int r) {
+        for (var a = 0; a < n; a++) {
+            var met = partners[r][a];
+            decrement(a, met);
+            for (var later = met & -(2L << a); later != 0; later &= later - 1) {
+                var c = pairCount(a, Long.numberOfTrailingZeros(later));
+                countHistogram[c + 1]--;
+                countHistogram[c]++;
+            }
+            partners[r][a] = 0;
+        }
+    }
+
+    /**
+     * Lower bound of the history penalty of the given number of meetings: each one goes to a pair of lowest count.
+     */
+    private long waterFill(long meetings) {
+        var history = 0L;
+        var level = 0;
+        var pairsAtOrBelow = 0L;
+        while (meetings > 0) {
+            if (level < countHistogram.length) {
+                pairsAtOrBelow += countHistogram[level];
+            }
+            var take = Math.min(meetings, pairsAtOrBelow);
+            history += take * level;
+            meetings -= take;
+            level++;
+        }
+        return PENALTY_HISTORY * history;
+    }
+
+    private int pairCount(int a, int b) {
+        var count = 0;
+        for (var bit = 0; bit < counterBits.length; bit++) {
+            count |= (int) (counterBits[bit][a] >>> b & 1) << bit;
+        }
+        return count;
+    }
+
+    private void increment(int a, long partnersOfA) {
+        var carry = partnersOfA;
+        for (var bit = 0; bit < counterBits.length && carry != 0; bit++) {
+            var next = counterBits[bit][a] & carry;
+            counterBits[bit][a] ^= carry;
+            carry = next;
+        }
+    }
+
+    private void decrement(int a, long partnersOfA) {
+        var borrow = partnersOfA;
+        for (var bit = 0; bit < counterBits.length && borrow != 0; bit++) {
+            var next = ~counterBits[bit][a] & borrow;
+            counterBits[bit][a] ^= borrow;
+            borrow = next;
+        }
+    }
+
+    private static long bits(int from, int to) {
+        return to - from == Long.SIZE ? -1L : ((1L << (to - from)) - 1) << from;
+    }
+
+    /**
+     * @param schedule the best schedule found
+     * @param score its score
+     * @param optimal whether no schedule with a lower score exists
+     */
+    public record Solution(IndexSchedule schedule, long score, boolean optimal) {
+
+    }
+
+    private final class Search {
+
+        private long bestScore;
+        private IndexSchedule best;
+
+        Search(RestartResult<IndexSchedule> incumbent) {
+            this.bestScore = incumbent == null ? Long.MAX_VALUE : incumbent.score();
+            this.best = incumbent == null ? null : incumbent.value();
+        }
+
+        void leaf() {
+            var score = prefix[rounds] * 1000 + pairImbalance();
+            if (score >= bestScore) {
+                return;
+            }
+            var schedule = new int[rounds][n];
+            for (var r = 0; r < rounds; r++) {
+                for (var g = 0; g < groups; g++) {
+                    var k = groupOffsets[g];
+                    for (var rest = groupMasks[r][g]; rest != 0; rest &= rest - 1) {
+                        schedule[r][k++] = Long.numberOfTrailingZeros(rest);
+                    }
+                }
+            }
+            bestScore = score;
+            best = new IndexSchedule(groupOffsets, schedule);
+        }
+
+        private int pairImbalance() {
+            if (n < 2) {
+                return 0;
+            }
+            var min = 0;
+            while (countHistogram[min] == 0) {
+                min++;
+            }
+            var max = countHistogram.length - 1;
+            while (countHistogram[max] == 0) {
+                max--;
+            }
+            return max - min;
+        }
+
+        Solution solution(boolean optimal) {
+            return new Solution(best, bestScore, optimal && best != null);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import java.util.Arrays;
+
+/**
+ * Packed history with {@code byte} counters, sufficient for plans with at most 127 rounds (monthly and weekly).
+ */
+class BytePairHistory extends PackedPairHistory {
+
+    private final byte[] counts;
+
+    BytePairHistory(int people) {
+        super(people);
+        this.counts = new byte[lastMet.length];
+    }
+
+    @Override
+    public int count(long slot) {
+        return counts[(int) slot];
+    }
+
+    @Override
+    public void meet(long slot, int round) {
+        counts[(int) slot]++;
+        lastMet[(int) slot] = (short) round;
+    }
+
+    @Override
+    public void add(long slot, int count) {
+        counts[(int) slot] += (byte) count;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(counts, (byte) 0);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return super.memoryBytes() + counts.length;
+    }
+}
@@ -0,0 +1,95 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import java.util.Arrays;
+
+/**
+ * Full square history for vectorized scoring. Both halves of the pair matrix are kept, so the counts and last meetings
+ * of a person with everybody else form one contiguous row, and the pairs a person forms with the members of a group
+ * are gathered from that row with the member indices. Needs {@code --add-modules jdk.incubator.vector}, without the
+ * module the pairs are scored one after the other.
+ */
+public class DensePairHistory implements PairHistory {
+
+    public static final int MAX_PEOPLE = 4096; // two int matrices of at most 64 MiB each
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final int people;
+    private final int[] counts;
+    private final int[] lastMet;
+    private final int[] gatherIndex = VECTORIZED ? new int[VectorPairKernel.LANES] : null;
+
+    public DensePairHistory(int people) {
+        if (people > MAX_PEOPLE) {
+            throw new IllegalArgumentException("Dense pair history supports at most " + MAX_PEOPLE + " people");
+        }
+        this.people = people;
+        this.counts = new int[people * people];
+        this.lastMet = new int[people * people];
+    }
+
+    public static long estimateBytes(int people) {
+        return 2L * people * people * Integer.BYTES;
+    }
+
+    @Override
+    public int people() {
+        return people;
+    }
+
+    @Override
+    public long slot(int a, int b) {
+        return a < b ? a * people + b : b * people + a;
+    }
+
+    @Override
+    public int count(long slot) {
+        return counts[(int) slot];
+    }
+
+    @Override
+    public int lastMet(long slot) {
+        return lastMet[(int) slot];
+    }
+
+    @Override
+    public void meet(long slot, int round) {
+        var mirror = mirror(slot);
+        counts[(int) slot]++;
+        counts[mirror]++;
+        lastMet[(int) slot] = round;
+        lastMet[mirror] = round;
+    }
+
+    @Override
+    public void add(long slot, int count) {
+        counts[(int) slot] += count;
+        counts[mirror(slot)] += count;
+    }
+
+    @Override
+    public long pairCost(int person, int[] members, int from, int to, int recentThreshold, int historyPenalty,
+        int recentPenalty) {
+        if (!VECTORIZED) {
+            return PairHistory.super.pairCost(person, members, from, to, recentThreshold, historyPenalty, recentPenalty);
+        }
+        return VectorPairKernel.pairCost(counts, lastMet, person * people, members, from, to, recentThreshold,
+            historyPenalty, recentPenalty, gatherIndex);
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(lastMet, 0);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return estimateBytes(people);
+    }
+
+    private int mirror(long slot) {
+        var a = (int) (slot / people);
+        var b = (int) (slot % people);
+        return b * people + a;
+    }
+}
@@ -0,0 +1,90 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import static java.nio.ByteOrder.nativeOrder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * History for very large participant lists, kept in direct memory outside the Java heap. Every pair takes a 4 byte
+ * slot ({@code short} count followed by the {@code short} round of the last meeting). The slots are spread over chunks
+ * of 1 GiB, so the size is not bound by the maximum array or buffer length.
+ */
+class OffHeapPairHistory implements PairHistory {
+
+    static final int SLOT_BYTES = 2 * Short.BYTES;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    private static final byte[] ZEROS = new byte[1 << 16];
+
+    private final int people;
+    private final long[] rowStart;
+    private final ByteBuffer[] chunks;
+    private final long bytes;
+
+    OffHeapPairHistory(int people) {
+        this.people = people;
+        this.rowStart = PackedPairHistory.rowStarts(people);
+        this.bytes = PackedPairHistory.pairs(people) * SLOT_BYTES;
+        this.chunks = new ByteBuffer[(int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (var c = 0; c < chunks.length; c++) {
+            var size = (int) Math.min(1L << CHUNK_SHIFT, bytes - ((long) c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect(size).order(nativeOrder());
+        }
+    }
+
+    @Override
+    public int people() {
+        return people;
+    }
+
+    @Override
+    public long slot(int a, int b) {
+        return a < b ? rowStart[a] + b : rowStart[b] + a;
+    }
+
+    @Override
+    public int count(long slot) {
+        var offset = slot * SLOT_BYTES;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getShort((int) (offset & CHUNK_MASK));
+    }
+
+    @Override
+    public int lastMet(long slot) {
+        var offset = slot * SLOT_BYTES + Short.BYTES;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getShort((int) (offset & CHUNK_MASK));
+    }
+
+    @Override
+    public void meet(long slot, int round) {
+        var offset = slot * SLOT_BYTES;
+        var chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+        var position = (int) (offset & CHUNK_MASK);
+        chunk.putShort(position, (short) (chunk.getShort(position) + 1));
+        chunk.putShort(position + Short.BYTES, (short) round);
+    }
+
+    @Override
+    public void add(long slot, int count) {
+        var offset = slot * SLOT_BYTES;
+        var chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+        var position = (int) (offset & CHUNK_MASK);
+        chunk.putShort(position, (short) (chunk.getShort(position) + count));
+    }
+
+    /**
+     * Zeroes the chunks in place, they are only freed by the garbage collector and must not be churned per restart.
+     */
+    @Override
+    public void reset() {
+        for (var chunk : chunks) {
+            for (var position = 0; position < chunk.capacity(); position += ZEROS.length) {
+                chunk.put(position, ZEROS, 0, Math.min(ZEROS.length, chunk.capacity() - position));
+            }
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        return bytes + rowStart.length * (long) Long.BYTES;
+    }
+}
@@ -0,0 +1,65 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import java.util.Arrays;
+
+/**
+ * Base of the on-heap histories. The upper triangle of the pair matrix is packed row by row into flat arrays, so only
+ * {@code n * (n - 1) / 2} slots are needed instead of {@code n * n}. The round of the last meeting is kept as a
+ * {@code short}, rounds never exceed the 366 days of a year.
+ */
+abstract class PackedPairHistory implements PairHistory {
+
+    static final long MAX_HEAP_PAIRS = Integer.MAX_VALUE - 8;
+
+    final int people;
+    final long[] rowStart;
+    final short[] lastMet;
+
+    PackedPairHistory(int people) {
+        this.people = people;
+        this.rowStart = rowStarts(people);
+        this.lastMet = new short[(int) pairs(people)];
+    }
+
+    static long pairs(int people) {
+        return people * (people - 1L) / 2;
+    }
+
+    /**
+     * Offsets such that {@code rowStart[a] + b} is the slot of the pair {@code a < b}.
+     */
+    static long[] rowStarts(int people) {
+        var rowStart = new long[people];
+        var offset = 0L;
+        for (var a = 0; a < people; a++) {
+            rowStart[a] = offset - a - 1;
+            offset += people - a - 1;
+        }
+        return rowStart;
+    }
+
+    @Override
+    public int people() {
+        return people;
+    }
+
+    @Override
+    public long slot(int a, int b) {
+        return a < b ? rowStart[a] + b : rowStart[b] + a;
+    }
+
+    @Override
+    public int lastMet(long slot) {
+        return lastMet[(int) slot];
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(lastMet, (short) 0);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return lastMet.length * (long) Short.BYTES + rowStart.length * (long) Long.BYTES;
+    }
+}
@@ -0,0 +1,90 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import java.util.Arrays;
+
+/**
+ * How many pairs met how often, maintained as the pair counters are incremented. Pair counts only grow, so the minimum
+ * only moves up and every figure is available in O(1) at any point of a schedule instead of scanning all pairs.
+ */
+public class PairCountHistogram {
+
+    private final long pairs;
+    private long[] frequency; // frequency[c] = number of pairs that met c times
+    private int min;
+    private int max;
+    private long sum;
+    private long sumOfSquares;
+
+    /**
+     * @param people number of people, all pairs start with a count of 0
+     */
+    public PairCountHistogram(int people) {
+        this.pairs = people * (people - 1L) / 2;
+        this.frequency = new long[16];
+        this.frequency[0] = pairs;
+    }
+
+    /**
+     * Records one more meeting of a pair.
+     *
+     * @param count how often the pair met before
+     */
+    public void increment(int count) {
+        add(count, 1);
+    }
+
+    /**
+     * Records more meetings of a pair.
+     *
+     * @param count how often the pair met before
+     * @param meetings additional meetings
+     */
+    public void add(int count, int meetings) {
+        if (meetings == 0) {
+            return;
+        }
+        var next = count + meetings;
+        if (next >= frequency.length) {
+            frequency = Arrays.copyOf(frequency, Math.max(next + 1, 2 * frequency.length));
+        }
+        frequency[count]--;
+        frequency[next]++;
+        sum += meetings;
+        sumOfSquares += (long) next * next - (long) count * count;
+        max = Math.max(max, next);
+        while (min < max && frequency[min] == 0) {
+            min++;
+        }
+    }
+
+    public long pairs() {
+        return pairs;
+    }
+
+    /**
+     * @return the count of the least frequent pair, 0 without pairs
+     */
+    public int min() {
+        return pairs == 0 ? 0 : min;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    public double mean() {
+        return pairs == 0 ? 0 : sum / (double) pairs;
+    }
+
+    public double variance() {
+        if (pairs == 0) {
+            return 0;
+        }
+        var mean = mean();
+        return Math.max(0, sumOfSquares / (double) pairs - mean * mean);
+    }
+
+    public long neverMet() {
+        return frequency[0];
+    }
+}
@@ -0,0 +1,83 @@
+package com.weinhold.constellation.creator.solver.history;
+
+/**
+ * Per-pair history of a schedule: how often two people met and in which round they met last.
+ * Only unordered pairs are stored, so a pair is addressed by its slot in a packed upper triangle.
+ */
+public interface PairHistory {
+
+    /**
+     * Allocates the most compact history for the given problem size.
+     *
+     * @param people number of people
+     * @param rounds number of rounds plus any counts carried over, bounds the highest possible pair count
+     * @param offHeap whether the history should be kept outside the Java heap
+     * @return an empty history
+     */
+    static PairHistory allocate(int people, int rounds, boolean offHeap) {
+        if (offHeap || PackedPairHistory.pairs(people) > PackedPairHistory.MAX_HEAP_PAIRS) {
+            return new OffHeapPairHistory(people);
+        }
+        return rounds <= Byte.MAX_VALUE ? new BytePairHistory(people) : new ShortPairHistory(people);
+    }
+
+    /**
+     * Estimates the memory the history returned by {@link #allocate(int, int, boolean)} would need.
+     */
+    static long estimateBytes(int people, int rounds, boolean offHeap) {
+        var pairs = PackedPairHistory.pairs(people);
+        var rowStarts = people * (long) Long.BYTES;
+        if (offHeap || pairs > PackedPairHistory.MAX_HEAP_PAIRS) {
+            return pairs * OffHeapPairHistory.SLOT_BYTES + rowStarts;
+        }
+        return pairs * ((rounds <= Byte.MAX_VALUE ? Byte.BYTES : Short.BYTES) + Short.BYTES) + rowStarts;
+    }
+
+    int people();
+
+    /**
+     * @return the slot of the unordered pair {@code a}, {@code b} with {@code a != b}
+     */
+    long slot(int a, int b);
+
+    int count(long slot);
+
+    /**
+     * @return the 1-based round in which the pair met last or 0 if it never met
+     */
+    int lastMet(long slot);
+
+    /**
+     * Records a meeting of the pair in the given 1-based round.
+     */
+    void meet(long slot, int round);
+
+    /**
+     * Records meetings of the pair that happened before the first round of the schedule, their rounds are not known.
+     */
+    void add(long slot, int count);
+
+    /**
+     * Forgets all meetings, so the history can be reused for the next restart instead of allocating a new one.
+     */
+    void reset();
+
+    /**
+     * @return the summed penalties of the pairs {@code person} forms with {@code members[from..to)}: the history
+     *         penalty per earlier meeting and the recent penalty per pair that met after {@code recentThreshold}
+     */
+    default long pairCost(int person, int[] members, int from, int to, int recentThreshold, int historyPenalty,
+        int recentPenalty) {
+        var cost = 0L;
+        for (var k = from; k < to; k++) {
+            var slot = slot(person, members[k]);
+            cost += (long) historyPenalty * count(slot);
+            if (lastMet(slot) > recentThreshold) {
+                cost += recentPenalty;
+            }
+        }
+        return cost;
+    }
+
+    long memoryBytes();
+}
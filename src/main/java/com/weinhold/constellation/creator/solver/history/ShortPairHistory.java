@@ -0,0 +1,43 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import java.util.Arrays;
+
+/**
+ * Packed history with {@code short} counters, used for daily plans.
+ */
+class ShortPairHistory extends PackedPairHistory {
+
+    private final short[] counts;
+
+    ShortPairHistory(int people) {
+        super(people);
+        this.counts = new short[lastMet.length];
+    }
+
+    @Override
+    public int count(long slot) {
+        return counts[(int) slot];
+    }
+
+    @Override
+    public void meet(long slot, int round) {
+        counts[(int) slot]++;
+        lastMet[(int) slot] = (short) round;
+    }
+
+    @Override
+    public void add(long slot, int count) {
+        counts[(int) slot] += (short) count;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(counts, (short) 0);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return super.memoryBytes() + counts.length * (long) Short.BYTES;
+    }
+}
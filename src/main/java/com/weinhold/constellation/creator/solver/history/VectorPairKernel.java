@@ -0,0 +1,44 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pair cost of a person with a group as gather and sum over the row of the person in a {@link DensePairHistory}. Only
+ * loaded if the incubator module is present.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class VectorPairKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    /**
+     * @param index scratch buffer of {@link #LANES} member indices. The members are copied into it, since gathers with
+     *            a non-zero index map offset crash the compiled code on JDK 21.0.1.
+     */
+    static long pairCost(int[] counts, int[] lastMet, int row, int[] members, int from, int to, int recentThreshold,
+        int historyPenalty, int recentPenalty, int[] index) {
+        var cost = 0L;
+        var k = from;
+        var threshold = IntVector.broadcast(SPECIES, recentThreshold);
+        for (var upper = from + SPECIES.loopBound(to - from); k < upper; k += LANES) {
+            System.arraycopy(members, k, index, 0, LANES);
+            var count = IntVector.fromArray(SPECIES, counts, row, index, 0);
+            // 1 for every pair that met after the threshold, computed without masks: rounds are far from overflowing
+            var recent = threshold.sub(IntVector.fromArray(SPECIES, lastMet, row, index, 0)).lanewise(VectorOperators.LSHR, 31);
+            cost += count.mul(historyPenalty).add(recent.mul(recentPenalty)).reduceLanesToLong(VectorOperators.ADD);
+        }
+        for (; k < to; k++) {
+            cost += (long) historyPenalty * counts[row + members[k]];
+            if (lastMet[row + members[k]] > recentThreshold) {
+                cost += recentPenalty;
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,131 @@
+package com.weinhold.constellation.creator.solver.library;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.cache.ScheduleShape;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only library of schedules pre-solved by {@link ScheduleLibraryBuilder}. The file is memory-mapped at startup,
+ * only the index of the shapes lives on the heap and a schedule is decoded from the mapping on lookup.
+ * <p>
+ * File layout (big-endian): magic, number of entries, then per entry the people count, the number of groups, the group
+ * sizes, the rounds, the window and the offset of its data. The data of an entry are the person indices round by
+ * round, ordered by group, as unsigned bytes for up to 256 people and unsigned shorts above. No entry crosses a
+ * {@link #CHUNK_BYTES} boundary, so each chunk is mapped on its own.
+ */
+@Slf4j
+@Component
+public class ScheduleLibrary {
+
+    static final int FILE_MAGIC = 0x43534C31; // "CSL1"
+    static final long CHUNK_BYTES = 1L << 30;
+    static final int MAX_BYTE_PEOPLE = 256; // up to this many people an index fits into an unsigned byte
+
+    private final Map<ScheduleShape, Long> offsets = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    public ScheduleLibrary(ScheduleLibraryProperties properties, MeterRegistry registry) {
+        this.hits = Counter.builder("constellation.schedule.library.requests").tag("result", "hit")
+                           .description("Schedule lookups answered from the precomputed library").register(registry);
+        this.misses = Counter.builder("constellation.schedule.library.requests").tag("result", "miss")
+                             .description("Schedule lookups not in the precomputed library").register(registry);
+        if (properties.getFile() != null) {
+            load(properties.getFile());
+        }
+    }
+
+    /**
+     * The library is solved without fixed seed, so only requests without one are served from it.
+     *
+     * @param shape shape of the requested schedule
+     * @return the precomputed schedule
+     */
+    public Optional<IndexSchedule> get(ScheduleShape shape) {
+        if (shape.seed() != null || offsets.isEmpty()) {
+            return Optional.empty();
+        }
+        var offset = offsets.get(shape);
+        if (offset == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(decode(shape, offset));
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+
+    private IndexSchedule decode(ScheduleShape shape, long offset) {
+        var n = shape.peopleCount();
+        var chunk = chunks[(int) (offset / CHUNK_BYTES)];
+        var position = (int) (offset % CHUNK_BYTES);
+        var rounds = new int[shape.rounds()][n];
+        for (var round : rounds) {
+            for (var k = 0; k < n; k++) {
+                if (n <= MAX_BYTE_PEOPLE) {
+                    round[k] = Byte.toUnsignedInt(chunk.get(position++));
+                } else {
+                    round[k] = Short.toUnsignedInt(chunk.getShort(position));
+                    position += Short.BYTES;
+                }
+            }
+        }
+        return new IndexSchedule(IndexSchedule.groupOffsets(shape.targetSizes()), rounds);
+    }
+
+    private void load(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var mapped = new ByteBuffer[(int) ((size + CHUNK_BYTES - 1) / CHUNK_BYTES)];
+            for (var c = 0; c < mapped.length; c++) {
+                var start = c * CHUNK_BYTES;
+                mapped[c] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_BYTES, size - start));
+            }
+            var header = mapped.length == 0 ? ByteBuffer.allocate(0) : mapped[0].duplicate();
+            if (header.remaining() < 2 * Integer.BYTES || header.getInt() != FILE_MAGIC) {
+                throw new IOException("Not a schedule library file");
+            }
+            var count = header.getInt();
+            for (var e = 0; e < count; e++) {
+                var peopleCount = header.getInt();
+                var targetSizes = new int[header.getInt()];
+                for (var g = 0; g < targetSizes.length; g++) {
+                    targetSizes[g] = header.getInt();
+                }
+                var rounds = header.getInt();
+                var window = header.getInt();
+                offsets.put(new ScheduleShape(peopleCount, targetSizes, rounds, window, null), header.getLong());
+            }
+            chunks = mapped;
+            log.info("Mapped schedule library {} with {} schedules ({} MiB)", file, count, size >> 20);
+        } catch (IOException | RuntimeException e) {
+            offsets.clear();
+            log.warn("Ignoring unreadable schedule library {}", file, e);
+        }
+    }
+
+    /**
+     * @return the number of bytes of the data of an entry
+     */
+    static long dataBytes(int peopleCount, int rounds) {
+        return (long) peopleCount * rounds * (peopleCount <= MAX_BYTE_PEOPLE ? Byte.BYTES : Short.BYTES);
+    }
+}
@@ -0,0 +1,154 @@
+package com.weinhold.constellation.creator.solver.library;
+
+import static com.weinhold.constellation.creator.solver.library.ScheduleLibrary.CHUNK_BYTES;
+import static com.weinhold.constellation.creator.solver.library.ScheduleLibrary.FILE_MAGIC;
+import static com.weinhold.constellation.creator.solver.library.ScheduleLibrary.MAX_BYTE_PEOPLE;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.ScheduleSolver;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.cache.ScheduleShape;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline build step of the {@link ScheduleLibrary}. Pre-solves all shapes a request for the given people counts, group
+ * counts and rounds can have, with the default solver configuration. Run from the application jar:
+ *
+ * <pre>
+ * java -cp app.jar -Dloader.main=com.weinhold.constellation.creator.solver.library.ScheduleLibraryBuilder \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher out=schedules.lib people=4-200 groups=2-40 \
+ *     rounds=12,52,53,365,366 window=3 seed=0
+ * </pre>
+ */
+@Slf4j
+public class ScheduleLibraryBuilder {
+
+    public static void main(String[] args) throws IOException {
+        var arguments = new HashMap<String, String>();
+        for (var arg : args) {
+            var split = arg.split("=", 2);
+            if (split.length != 2) {
+                throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            }
+            arguments.put(split[0], split[1]);
+        }
+        var out = Path.of(arguments.getOrDefault("out", "schedules.lib"));
+        var people = range(arguments.getOrDefault("people", "4-200"));
+        var groups = range(arguments.getOrDefault("groups", "2-40"));
+        var rounds = Arrays.stream(arguments.getOrDefault("rounds", "12,52,53,365,366").split(","))
+                           .mapToInt(Integer::parseInt).toArray();
+        var window = Integer.parseInt(arguments.getOrDefault("window", "3"));
+        var seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+
+        var properties = new SolverProperties();
+        var solver = ScheduleSolver.standalone(properties);
+        var shapes = shapes(people, groups, rounds, window);
+        log.info("Building schedule library {} with {} shapes", out, shapes.size());
+        write(out, shapes, shape -> solver.solve(SolverProblem.builder()
+                                                              .peopleCount(shape.peopleCount())
+                                                              .targetSizes(shape.targetSizes())
+                                                              .rounds(shape.rounds())
+                                                              .window(shape.window())
+                                                              .seed(seed)
+                                                              .build(), null));
+    }
+
+    /**
+     * @return every shape a request can have whose people count and group count lie in the given inclusive ranges
+     */
+    static List<ScheduleShape> shapes(int[] people, int[] groups, int[] rounds, int window) {
+        var shapes = new ArrayList<ScheduleShape>();
+        for (var n = people[0]; n <= people[1]; n++) {
+            var sizes = new LinkedHashSet<List<Integer>>();
+            for (var groupSize = 2; groupSize <= n; groupSize++) {
+                var targetSizes = SolverProblem.balancedSizes(n, groupSize);
+                if (targetSizes.length >= groups[0] && targetSizes.length <= groups[1]) {
+                    sizes.add(Arrays.stream(targetSizes).boxed().toList());
+                }
+            }
+            for (var targetSizes : sizes) {
+                for (var r : rounds) {
+                    shapes.add(new ScheduleShape(n, targetSizes.stream().mapToInt(Integer::intValue).toArray(), r, window,
+                        null));
+                }
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * Writes the library file. The index is written first, the schedules are solved one after the other and streamed
+     * behind it.
+     */
+    static void write(Path file, List<ScheduleShape> shapes, Function<ScheduleShape, IndexSchedule> solver)
+        throws IOException {
+        var headerBytes = 2L * Integer.BYTES;
+        for (var shape : shapes) {
+            headerBytes += 4L * Integer.BYTES + Long.BYTES + (long) shape.targetSizes().length * Integer.BYTES;
+        }
+        var offsets = new long[shapes.size()];
+        var position = headerBytes;
+        for (var e = 0; e < shapes.size(); e++) {
+            var bytes = ScheduleLibrary.dataBytes(shapes.get(e).peopleCount(), shapes.get(e).rounds());
+            if (position / CHUNK_BYTES != (position + bytes - 1) / CHUNK_BYTES) {
+                position = (position / CHUNK_BYTES + 1) * CHUNK_BYTES;
+            }
+            offsets[e] = position;
+            position += bytes;
+        }
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(shapes.size());
+            for (var e = 0; e < shapes.size(); e++) {
+                var shape = shapes.get(e);
+                out.writeInt(shape.peopleCount());
+                out.writeInt(shape.targetSizes().length);
+                for (var size : shape.targetSizes()) {
+                    out.writeInt(size);
+                }
+                out.writeInt(shape.rounds());
+                out.writeInt(shape.window());
+                out.writeLong(offsets[e]);
+            }
+            position = headerBytes;
+            for (var e = 0; e < shapes.size(); e++) {
+                var shape = shapes.get(e);
+                for (; position < offsets[e]; position++) {
+                    out.writeByte(0);
+                }
+                log.info("Solving shape {} of {}: {}", e + 1, shapes.size(), shape);
+                for (var round : solver.apply(shape).rounds()) {
+                    for (var person : round) {
+                        if (shape.peopleCount() <= MAX_BYTE_PEOPLE) {
+                            out.writeByte(person);
+                        } else {
+                            out.writeShort(person);
+                        }
+                    }
+                }
+                position += ScheduleLibrary.dataBytes(shape.peopleCount(), shape.rounds());
+            }
+        }
+    }
+
+    private static int[] range(String value) {
+        var bounds = value.split("-", 2);
+        var from = Integer.parseInt(bounds[0]);
+        return new int[] { from, bounds.length == 1 ? from : Integer.parseInt(bounds[1]) };
+    }
+}
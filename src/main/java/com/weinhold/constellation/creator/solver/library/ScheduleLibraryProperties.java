@@ -0,0 +1,15 @@
+package com.weinhold.constellation.creator.solver.library;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "constellation.library")
+public class ScheduleLibraryProperties {
+
+    private Path file; // library written by ScheduleLibraryBuilder, memory-mapped at startup; no library if not set
+
+}
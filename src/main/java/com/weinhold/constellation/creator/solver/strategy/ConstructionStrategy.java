@@ -0,0 +1,57 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.construction.ConstructionEngine;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds schedules with the shape of a known design directly, they are optimal.
+ */
+@Slf4j
+@Order(1)
+@Component
+@AllArgsConstructor
+public class ConstructionStrategy implements SolverStrategy {
+
+    public static final String NAME = "construction";
+
+    private final ConstructionEngine constructionEngine;
+    private final SolverProperties solverProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Designs start from scratch and only look at pairs, so problems beyond their shape are never constructed.
+     */
+    @Override
+    public boolean supports(SolverProblem problem) {
+        return problem.isShapeOnly() && constructionEngine.construct(problem).isPresent();
+    }
+
+    @Override
+    public Duration predictRuntime(SolverProblem problem, Duration timeBudget) {
+        return CostModel.nanos((double) problem.getRounds() * problem.getPeopleCount() * solverProperties.getGreedyStepNanos());
+    }
+
+    @Override
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget) {
+        var constructed = constructionEngine.construct(problem)
+                                            .orElseThrow(() -> new IllegalArgumentException("No design fits the problem"));
+        log.info("{} people solved by construction: {} with a cycle of {} rounds", problem.getPeopleCount(),
+                 constructed.name(), constructed.cycleLength());
+        return Arrays.asList(constructed.schedule().rounds()).iterator();
+    }
+}
@@ -0,0 +1,56 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+
+import lombok.NoArgsConstructor;
+
+/**
+ * Runtime predictions of the strategies. A step is scoring one pair; its time is calibrated per strategy in the
+ * {@link SolverProperties}, the step counts follow from the loops of the solvers.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class CostModel {
+
+    /**
+     * Placing a person scores it against the members of all groups, half full on average, and every local-search swap
+     * scores two people against two groups.
+     *
+     * @return the predicted runtime of a single greedy restart
+     */
+    static Duration greedyRestart(SolverProblem problem, SolverProperties properties) {
+        var n = (double) problem.getPeopleCount();
+        var steps = problem.getRounds() * (n * n / 2 + 4.0 * properties.getLocalSearchMoves() * n * groupSize(problem));
+        return nanos(steps * properties.getGreedyStepNanos());
+    }
+
+    /**
+     * @return the mean size of the groups of the problem
+     */
+    static double groupSize(SolverProblem problem) {
+        return problem.getPeopleCount() / (double) Math.max(1, problem.getTargetSizes().length);
+    }
+
+    /**
+     * @return the time budget capped by the configuration
+     */
+    static Duration capped(Duration timeBudget, SolverProperties properties) {
+        return min(timeBudget, properties.getMaxTimeBudget());
+    }
+
+    static Duration nanos(double nanos) {
+        return Duration.ofNanos((long) Math.min(nanos, Long.MAX_VALUE));
+    }
+
+    static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
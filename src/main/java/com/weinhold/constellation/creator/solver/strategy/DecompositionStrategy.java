@@ -0,0 +1,74 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.decomposition.DecompositionSolver;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Solves problems from {@link SolverProperties#getDecompositionThreshold()} people on in blocks, when the flat search
+ * would take too long, or any problem of more than one block if forced. Takes no time budget.
+ */
+@Order(4)
+@Component
+@AllArgsConstructor
+public class DecompositionStrategy implements SolverStrategy {
+
+    public static final String NAME = "decomposition";
+
+    private final RestartEngine restartEngine;
+    private final SolverProperties solverProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(SolverProblem problem) {
+        return blocks(problem) > 1;
+    }
+
+    /**
+     * The threshold only decides when the strategy is selected, so a schedule solved in blocks can be solved the same
+     * way again after the threshold was changed.
+     */
+    @Override
+    public boolean selectable(SolverProblem problem) {
+        var threshold = solverProperties.getDecompositionThreshold();
+        return threshold > 0 && problem.getPeopleCount() >= threshold;
+    }
+
+    /**
+     * Every round each block scores its people against its half full groups and the partners they met so far, the
+     * blocks run in parallel.
+     */
+    @Override
+    public Duration predictRuntime(SolverProblem problem, Duration timeBudget) {
+        var n = (double) problem.getPeopleCount();
+        var blockSize = n / blocks(problem);
+        var groupSize = CostModel.groupSize(problem);
+        var steps = problem.getRounds() * (n * blockSize / 2 + 4.0 * solverProperties.getLocalSearchMoves() * n * groupSize
+            + n * problem.getRounds() * (groupSize - 1) / 2);
+        var parallel = Math.min(restartEngine.parallelism(), blocks(problem));
+        return CostModel.nanos(steps * solverProperties.getDecompositionStepNanos() / parallel);
+    }
+
+    @Override
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget) {
+        return new DecompositionSolver(problem, solverProperties, restartEngine).rounds();
+    }
+
+    private int blocks(SolverProblem problem) {
+        return DecompositionSolver.blockCount(problem.getPeopleCount(), problem.getTargetSizes().length,
+            problem.blockSize(solverProperties));
+    }
+}
@@ -0,0 +1,72 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.exact.ExactSolver;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * For small teams the greedy result is the starting point of an exact search, which runs until it proves optimality or
+ * has spent its node budget, so a seeded schedule stays reproducible. With a time budget both get half of it.
+ * <p>
+ * The search only proves optimality where a schedule reaches the lower bound of the score, which misses the recent
+ * penalties that groups of a realistic size cannot avoid at a window of several rounds. Everywhere else it spends its
+ * whole budget on a few percent over the greedy schedule, so it is never selected and only solves when forced.
+ */
+@Slf4j
+@Order(2)
+@Component
+@AllArgsConstructor
+public class ExactStrategy implements SolverStrategy {
+
+    public static final String NAME = "exact";
+
+    private final GreedyStrategy greedyStrategy;
+    private final SolverProperties solverProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(SolverProblem problem) {
+        return problem.isShapeOnly()
+            && problem.getPeopleCount() <= Math.min(solverProperties.getExactMaxPeople(), ExactSolver.MAX_PEOPLE);
+    }
+
+    @Override
+    public boolean selectable(SolverProblem problem) {
+        return false;
+    }
+
+    @Override
+    public Duration predictRuntime(SolverProblem problem, Duration timeBudget) {
+        if (timeBudget == null) {
+            return greedyStrategy.predictRuntime(problem, null)
+                                 .plus(CostModel.nanos(solverProperties.getExactNodeBudget()
+                                     * solverProperties.getExactNodeNanos()));
+        }
+        return CostModel.capped(timeBudget, solverProperties);
+    }
+
+    @Override
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget) {
+        var searchBudget = timeBudget == null ? null : CostModel.capped(timeBudget, solverProperties).dividedBy(2);
+        var best = greedyStrategy.search(problem, searchBudget);
+        var timeCap = timeBudget == null ? null : CostModel.capped(timeBudget, solverProperties).minus(searchBudget);
+        var exact = new ExactSolver(problem).solve(best, solverProperties.getExactNodeBudget(), timeCap);
+        log.info("{} people solved by exact search with score {} ({}), heuristic reached {}", problem.getPeopleCount(),
+                 exact.score(), exact.optimal() ? "optimal" : "budget spent", best.score());
+        return Arrays.asList(exact.schedule().rounds()).iterator();
+    }
+}
@@ -0,0 +1,125 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import static java.lang.Math.max;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.GreedySolver;
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.RestartResult;
+import com.weinhold.constellation.creator.solver.SearchLimits;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The greedy heuristic with randomized restarts running in parallel; the result only depends on the seed. Solves every
+ * problem.
+ */
+@Slf4j
+@Order(3)
+@Component
+@AllArgsConstructor
+public class GreedyStrategy implements SolverStrategy {
+
+    public static final String NAME = "greedy";
+
+    private final RestartEngine restartEngine;
+    private final SolverProperties solverProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(SolverProblem problem) {
+        return true;
+    }
+
+    /**
+     * Without time budget the restarts run in waves of the parallelism, with a time budget they run until it is spent.
+     */
+    @Override
+    public Duration predictRuntime(SolverProblem problem, Duration timeBudget) {
+        var restart = CostModel.greedyRestart(problem, solverProperties);
+        if (timeBudget == null) {
+            var waves = Math.ceilDiv(max(1, problem.restarts(solverProperties)), workers(problem));
+            return restart.multipliedBy(waves);
+        }
+        return CostModel.max(restart, CostModel.capped(timeBudget, solverProperties));
+    }
+
+    /**
+     * With a single restart and no time budget the rounds are final as soon as they are built, so the first rounds are
+     * handed out while the later ones are still being built.
+     */
+    @Override
+    public Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget) {
+        if (timeBudget == null && problem.restarts(solverProperties) <= 1) {
+            log.info("{} people solved round by round by a single greedy restart", problem.getPeopleCount());
+            // the random stream the restart engine hands to its first restart
+            var rng = new SplittableRandom(problem.getSeed()).split();
+            return new GreedySolver(problem, solverProperties).rounds(rng);
+        }
+        var best = search(problem, timeBudget);
+        return Arrays.asList(best.value().rounds()).iterator();
+    }
+
+    /**
+     * @return the best schedule of the restarts
+     */
+    public RestartResult<IndexSchedule> search(SolverProblem problem, Duration timeBudget) {
+        var solver = new GreedySolver(problem, solverProperties);
+        var workers = workers(problem);
+        log.info("Pair history of {} people takes {} KiB per restart, {} KiB with {} parallel restarts",
+                 problem.getPeopleCount(), solver.historyBytes() / 1024, solver.historyBytes() * workers / 1024,
+                 workers);
+
+        var limits = searchLimits(problem, timeBudget, solver);
+        var best = restartEngine.findBest(limits, problem.getSeed(), solver::tryOneRestart)
+                                .orElseThrow(() -> new IllegalStateException("Failed to build a schedule"));
+        log.info("{} people solved by greedy heuristic with score {} (lower bound {})", problem.getPeopleCount(),
+                 best.score(), solver.lowerBound());
+        return best;
+    }
+
+    /**
+     * Every worker keeps a pair history of its own. Off-heap histories are only freed by the garbage collector, so
+     * fewer of them run at the same time than the heap ones.
+     *
+     * @return the number of restarts running at the same time
+     */
+    private int workers(SolverProblem problem) {
+        var parallelism = restartEngine.parallelism();
+        if (problem.getPeopleCount() >= solverProperties.getOffHeapThreshold()) {
+            return Math.min(parallelism, max(1, solverProperties.getOffHeapParallelism()));
+        }
+        return parallelism;
+    }
+
+    /**
+     * Without time budget a fixed number of restarts is run. With a time budget (capped by the configuration) restarts
+     * are run until the budget is spent or the score stops improving.
+     */
+    private SearchLimits searchLimits(SolverProblem problem, Duration timeBudget, GreedySolver solver) {
+        var limits = SearchLimits.builder().lowerBound(solver.lowerBound());
+        if (solver.offHeap()) {
+            limits.workers(max(1, solverProperties.getOffHeapParallelism()));
+        }
+        if (timeBudget == null) {
+            return limits.restarts(max(1, problem.restarts(solverProperties))).build();
+        }
+        var budget = CostModel.capped(timeBudget, solverProperties);
+        return limits.restarts(Integer.MAX_VALUE).timeBudget(budget).stallRestarts(solverProperties.getStallRestarts()).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+/**
+ * A way of solving a {@link SolverProblem}. The {@link StrategySelector} knows all strategies in the order of their
+ * {@link org.springframework.core.annotation.Order}, best schedules first, and picks the first one that supports a
+ * problem and is predicted to finish in time.
+ */
+public interface SolverStrategy {
+
+    /**
+     * @return the name the strategy is logged, measured and forced by
+     */
+    String name();
+
+    /**
+     * @param problem the problem to solve
+     * @return whether the strategy can solve the problem
+     */
+    boolean supports(SolverProblem problem);
+
+    /**
+     * @param problem the problem to solve, supported by the strategy
+     * @return whether the selector may pick the strategy for the problem, a forced strategy only has to support it
+     */
+    default boolean selectable(SolverProblem problem) {
+        return true;
+    }
+
+    /**
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take (capped by the configuration) or {@code null} for a fixed number of
+     *            restarts
+     * @return the runtime the cost model predicts for the problem
+     */
+    Duration predictRuntime(SolverProblem problem, Duration timeBudget);
+
+    /**
+     * @param problem the problem to solve, supported by the strategy
+     * @param timeBudget time the search may take (capped by the configuration) or {@code null} for a fixed number of
+     *            restarts
+     * @return the rounds of the schedule, each one holding the person indices ordered by group
+     */
+    Iterator<int[]> solveRounds(SolverProblem problem, Duration timeBudget);
+}
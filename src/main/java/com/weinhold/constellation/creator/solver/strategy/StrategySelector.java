@@ -0,0 +1,99 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.construction.ConstructionEngine;
+
+/**
+ * Registry of all {@link SolverStrategy strategies}, ordered by the quality of their schedules. A problem is solved by
+ * the first strategy that supports it and is predicted to finish within the time budget, capped by the configuration,
+ * or within the configured maximum without time budget. If no strategy is predicted to finish in time, the fastest
+ * one is taken.
+ */
+@Component
+public class StrategySelector {
+
+    private final List<SolverStrategy> strategies;
+    private final SolverProperties solverProperties;
+
+    public StrategySelector(List<SolverStrategy> strategies, SolverProperties solverProperties) {
+        this.strategies = List.copyOf(strategies);
+        this.solverProperties = solverProperties;
+    }
+
+    /**
+     * @return a selector with all strategies, for use outside the application context
+     */
+    public static StrategySelector defaults(RestartEngine restartEngine, ConstructionEngine constructionEngine,
+        SolverProperties solverProperties) {
+        var greedy = new GreedyStrategy(restartEngine, solverProperties);
+        return new StrategySelector(List.of(new ConstructionStrategy(constructionEngine, solverProperties),
+            new ExactStrategy(greedy, solverProperties), greedy, new DecompositionStrategy(restartEngine, solverProperties)),
+            solverProperties);
+    }
+
+    /**
+     * @return the names of all strategies in the order they are tried
+     */
+    public List<String> names() {
+        return strategies.stream().map(SolverStrategy::name).toList();
+    }
+
+    /**
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take or {@code null} for a fixed number of restarts
+     * @return the strategy to solve the problem with and its predicted runtime
+     */
+    public StrategyChoice select(SolverProblem problem, Duration timeBudget) {
+        var allowed = timeBudget == null ? solverProperties.getMaxTimeBudget() : CostModel.capped(timeBudget, solverProperties);
+        StrategyChoice fastest = null;
+        for (var strategy : strategies) {
+            if (!strategy.supports(problem) || !strategy.selectable(problem)) {
+                continue;
+            }
+            var predicted = strategy.predictRuntime(problem, timeBudget);
+            if (predicted.compareTo(allowed) <= 0) {
+                return new StrategyChoice(strategy, predicted, false);
+            }
+            if (fastest == null || predicted.compareTo(fastest.predicted()) < 0) {
+                fastest = new StrategyChoice(strategy, predicted, false);
+            }
+        }
+        if (fastest == null) {
+            throw new IllegalStateException("No solver strategy supports the problem");
+        }
+        return fastest;
+    }
+
+    /**
+     * @param name name of the strategy to solve the problem with, whatever its predicted runtime
+     * @param problem the problem to solve
+     * @param timeBudget time the search may take or {@code null} for a fixed number of restarts
+     * @return the strategy and its predicted runtime
+     * @throws IllegalArgumentException if the strategy is unknown or does not support the problem
+     */
+    public StrategyChoice force(String name, SolverProblem problem, Duration timeBudget) {
+        var strategy = strategies.stream().filter(s -> s.name().equals(name)).findFirst()
+                                 .orElseThrow(() -> new IllegalArgumentException(
+                                     "Unknown solver strategy " + name + ", known are " + names()));
+        if (!strategy.supports(problem)) {
+            throw new IllegalArgumentException("Solver strategy " + name + " does not support the problem");
+        }
+        return new StrategyChoice(strategy, strategy.predictRuntime(problem, timeBudget), true);
+    }
+
+    /**
+     * @param strategy the strategy to solve the problem with
+     * @param predicted the runtime the cost model predicts
+     * @param forced whether the caller chose the strategy
+     */
+    public record StrategyChoice(SolverStrategy strategy, Duration predicted, boolean forced) {
+
+    }
+}
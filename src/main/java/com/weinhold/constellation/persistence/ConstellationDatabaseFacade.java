@@ -1,51 +1,279 @@
 package com.weinhold.constellation.persistence;
 
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.weinhold.constellation.persistence.model.Constellation;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.PackedRound;
+import com.weinhold.constellation.persistence.model.Person;
 import com.weinhold.constellation.persistence.repository.ConstellationRepository;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Stores the constellation entries round by round: one row per round holds the group sizes and the ordinals of the
+ * members, group by group, as unsigned big-endian shorts for up to {@value #MAX_SHORT_PEOPLE} people and as ints above.
+ * The width follows from the length of the members and the sum of the group sizes. The parameters of a constellation
+ * are stored in its {@link Constellation} header.
+ */
 @Slf4j
 @Component
 @AllArgsConstructor
 public class ConstellationDatabaseFacade {
 
+    private static final String INSERT_ROUND = "INSERT INTO groupchat_constellation_creator.constellation_rounds "
+        + "(constellation_id, round_number, group_sizes, members) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_ROUNDS = "SELECT round_number, group_sizes, members "
+        + "FROM groupchat_constellation_creator.constellation_rounds WHERE constellation_id = ? ORDER BY round_number";
+    private static final String DELETE_ROUNDS =
+        "DELETE FROM groupchat_constellation_creator.constellation_rounds WHERE constellation_id = ?";
+    private static final int BATCH_SIZE = 1000;
+    private static final int FETCH_ROUNDS = 64; // rounds fetched per round trip when streaming
+    static final int MAX_SHORT_PEOPLE = 1 << 16; // up to this many ordinals fit into an unsigned short
+
     private final ConstellationRepository constellationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Saves the header of a constellation, replacing the previous one.
+     *
+     * @param constellation the header of the constellation
+     */
+    public void saveConstellation(Constellation constellation) {
+        log.debug("Saving constellation header: {}", constellation);
+        constellationRepository.save(constellation);
+    }
+
+    /**
+     * Finds the header of a constellation.
+     *
+     * @param constellationId the UUID of the constellation
+     * @return an Optional containing the header or empty if the constellation is unknown or older than the headers
+     */
+    public Optional<Constellation> findConstellation(UUID constellationId) {
+        log.debug("Finding constellation header: {}", constellationId);
+        return constellationRepository.findById(constellationId);
+    }
+
+    /**
+     * Deletes the header of a constellation with a single statement.
+     *
+     * @param constellationId the UUID of the constellation
+     */
+    @Transactional
+    public void deleteConstellation(UUID constellationId) {
+        log.debug("Deleting constellation header: {}", constellationId);
+        constellationRepository.deleteAllByIdInBatch(List.of(constellationId));
+    }
 
     /**
-     * Saves a constellation entry to the database.
+     * Inserts constellation entries in JDBC batches within one transaction. The entries must be new and all entries of
+     * a round must be passed in the same call, as the groups of a round are stored together.
      *
-     * @param entry the constellation entry to be saved
+     * @param entries the new constellation entries, ordered by round and group
+     * @param people the people of the entries with their ordinals
      */
-    public void saveConstellationEntry(ConstellationEntry entry) {
-        log.debug("Saving constellation entry: {}", entry);
-        constellationRepository.save(entry);
+    @Transactional
+    public void saveConstellationEntries(List<ConstellationEntry> entries, List<Person> people) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        var ordinalById = ordinalById(people);
+        var rounds = new ArrayList<PackedRound>();
+        for (var from = 0; from < entries.size();) {
+            var to = from + 1;
+            while (to < entries.size() && entries.get(to).getRoundNumber() == entries.get(from).getRoundNumber()) {
+                to++;
+            }
+            rounds.add(pack(entries.subList(from, to), ordinalById));
+            from = to;
+        }
+        log.debug("Inserting {} constellation entries in {} rounds", entries.size(), rounds.size());
+        saveRounds(entries.getFirst().getConstellationId(), rounds);
+    }
+
+    /**
+     * Inserts packed rounds in JDBC batches within one transaction. The rounds must be new.
+     *
+     * @param constellationId the UUID of the constellation
+     * @param rounds the new rounds, packed by {@link #pack(List, Map)}
+     */
+    @Transactional
+    public void saveRounds(UUID constellationId, List<PackedRound> rounds) {
+        log.debug("Inserting {} rounds of constellation {}", rounds.size(), constellationId);
+        jdbcTemplate.batchUpdate(INSERT_ROUND, rounds, BATCH_SIZE, (statement, round) -> {
+            statement.setObject(1, constellationId);
+            statement.setInt(2, round.roundNumber());
+            statement.setArray(3, statement.getConnection().createArrayOf("integer",
+                Arrays.stream(round.groupSizes()).boxed().toArray()));
+            statement.setBytes(4, round.members());
+        });
+    }
+
+    /**
+     * Packs the groups of a round into the stored format, so many rounds can be kept until they are inserted.
+     *
+     * @param groups the entries of one round in group order
+     * @param ordinalById the ordinals of the people by their IDs, see {@link #ordinalById(List)}
+     * @return the packed round
+     */
+    public static PackedRound pack(List<ConstellationEntry> groups, Map<UUID, Integer> ordinalById) {
+        return new PackedRound(groups.getFirst().getRoundNumber(),
+            groups.stream().mapToInt(entry -> entry.getPersonIds().size()).toArray(),
+            encode(groups.stream().flatMap(entry -> entry.getPersonIds().stream()).mapToInt(ordinalById::get)
+                         .toArray()));
+    }
+
+    /**
+     * @return the ordinals of the people by their IDs
+     */
+    public static Map<UUID, Integer> ordinalById(List<Person> people) {
+        var ordinalById = new HashMap<UUID, Integer>();
+        for (var person : people) {
+            ordinalById.put(person.getId(), person.getOrdinal());
+        }
+        return ordinalById;
     }
 
     /**
      * Finds all constellation entries associated with a specific constellation ID.
      *
      * @param constellationId the UUID of the constellation
-     * @return a list of constellation entries for the given constellation ID
+     * @param people all people of the constellation, to map the stored ordinals back onto
+     * @return a list of constellation entries for the given constellation ID, ordered by round and group
      */
-    public List<ConstellationEntry> findAllEntriesOfConstellation(UUID constellationId) {
+    public List<ConstellationEntry> findAllEntriesOfConstellation(UUID constellationId, List<Person> people) {
         log.debug("Finding all constellation entries for run ID: {}", constellationId);
-        return constellationRepository.findByConstellationId(constellationId);
+        var idByOrdinal = idByOrdinal(people);
+        return jdbcTemplate.query(SELECT_ROUNDS, (resultSet, rowNumber) -> groupsOf(constellationId, resultSet, idByOrdinal),
+                               constellationId)
+                           .stream().flatMap(List::stream).toList();
     }
 
     /**
-     * Deletes all constellation entries associated with a specific constellation ID.
+     * Streams the constellation entries of a constellation from a database cursor, fetching {@value #FETCH_ROUNDS}
+     * rounds at a time, so only those rounds are held in memory however long the constellation is. The cursor needs
+     * the surrounding transaction to stay open and the stream must be closed to release it.
      *
      * @param constellationId the UUID of the constellation
+     * @param people all people of the constellation, to map the stored ordinals back onto
+     * @return the constellation entries for the given constellation ID, ordered by round and group
      */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<ConstellationEntry> streamEntriesOfConstellation(UUID constellationId, List<Person> people) {
+        log.debug("Streaming all constellation entries for run ID: {}", constellationId);
+        var idByOrdinal = idByOrdinal(people);
+        PreparedStatementCreator select = connection -> {
+            var statement = connection.prepareStatement(SELECT_ROUNDS);
+            statement.setFetchSize(FETCH_ROUNDS);
+            statement.setObject(1, constellationId);
+            return statement;
+        };
+        return jdbcTemplate.queryForStream(select, (resultSet, rowNumber) -> groupsOf(constellationId, resultSet,
+            idByOrdinal)).flatMap(List::stream);
+    }
+
+    /**
+     * Deletes all constellation entries associated with a specific constellation ID with a single statement.
+     *
+     * @param constellationId the UUID of the constellation
+     */
+    @Transactional
     public void deleteAllEntriesOfConstellation(UUID constellationId) {
-        log.debug("Deleting all constellation entries of constellation {}", constellationId);
-        constellationRepository.deleteAll(constellationRepository.findByConstellationId(constellationId));
+        var deleted = jdbcTemplate.update(DELETE_ROUNDS, constellationId);
+        log.debug("Deleted {} rounds of constellation {}", deleted, constellationId);
+    }
+
+    /**
+     * Deletes the constellation entries of a constellation from a given round on with a single statement.
+     *
+     * @param constellationId the UUID of the constellation
+     * @param roundNumber the first round number to delete
+     */
+    @Transactional
+    public void deleteEntriesOfConstellationFromRound(UUID constellationId, int roundNumber) {
+        var deleted = jdbcTemplate.update(DELETE_ROUNDS + " AND round_number >= ?", constellationId, roundNumber);
+        log.debug("Deleted {} rounds of constellation {} from round {}", deleted, constellationId, roundNumber);
+    }
+
+    /**
+     * @return the ordinals packed as unsigned shorts, or as ints if one of them does not fit
+     */
+    static byte[] encode(int[] ordinals) {
+        var wide = Arrays.stream(ordinals).anyMatch(ordinal -> ordinal >= MAX_SHORT_PEOPLE);
+        var members = ByteBuffer.allocate(ordinals.length * (wide ? Integer.BYTES : Short.BYTES));
+        for (var ordinal : ordinals) {
+            if (wide) {
+                members.putInt(ordinal);
+            } else {
+                members.putShort((short) ordinal);
+            }
+        }
+        return members.array();
+    }
+
+    /**
+     * @param members the packed ordinals
+     * @param count the number of ordinals packed
+     * @return the ordinals
+     */
+    static int[] decode(byte[] members, int count) {
+        var wide = count > 0 && members.length / count == Integer.BYTES;
+        var buffer = ByteBuffer.wrap(members);
+        var ordinals = new int[count];
+        for (var k = 0; k < count; k++) {
+            ordinals[k] = wide ? buffer.getInt() : Short.toUnsignedInt(buffer.getShort());
+        }
+        return ordinals;
+    }
+
+    /**
+     * @return the IDs of the people indexed by their ordinals
+     */
+    private static UUID[] idByOrdinal(List<Person> people) {
+        var idByOrdinal = new UUID[people.stream().mapToInt(Person::getOrdinal).max().orElse(-1) + 1];
+        for (var person : people) {
+            idByOrdinal[person.getOrdinal()] = person.getId();
+        }
+        return idByOrdinal;
+    }
+
+    private static List<ConstellationEntry> groupsOf(UUID constellationId, ResultSet round, UUID[] idByOrdinal)
+        throws SQLException {
+        var roundNumber = round.getInt("round_number");
+        var groupSizes = (Integer[]) round.getArray("group_sizes").getArray();
+        var ordinals = decode(round.getBytes("members"), Arrays.stream(groupSizes).mapToInt(Integer::intValue).sum());
+        var entries = new ArrayList<ConstellationEntry>(groupSizes.length);
+        var k = 0;
+        for (var g = 0; g < groupSizes.length; g++) {
+            var personIds = new ArrayList<UUID>(groupSizes[g]);
+            for (var end = k + groupSizes[g]; k < end; k++) {
+                personIds.add(idByOrdinal[ordinals[k]]);
+            }
+            entries.add(ConstellationEntry.builder()
+                                          .constellationId(constellationId)
+                                          .roundNumber(roundNumber)
+                                          .groupNumber(g + 1)
+                                          .personIds(personIds)
+                                          .build());
+        }
+        return entries;
     }
 }
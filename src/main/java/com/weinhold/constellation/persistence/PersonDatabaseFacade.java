@@ -1,10 +1,13 @@
 package com.weinhold.constellation.persistence;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.weinhold.constellation.persistence.model.Person;
 import com.weinhold.constellation.persistence.repository.PersonRepository;
@@ -17,22 +20,64 @@ import lombok.extern.slf4j.Slf4j;
 @AllArgsConstructor
 public class PersonDatabaseFacade {
 
+    private static final String INSERT_PERSON =
+        "INSERT INTO groupchat_constellation_creator.people (id, constellation_id, name, ordinal) VALUES (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
     private final PersonRepository personRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Saves people with the given names to the database in JDBC batches within one transaction. The people are numbered
+     * in the order of the names, the stored rounds refer to them by these ordinals.
+     *
+     * @param constellationId the unique identifier for the current constellation
+     * @param personNames the names of the people to be saved
+     * @param firstOrdinal the ordinal of the first person, the number of people already saved for the constellation
+     * @return the saved people in the order of the names
+     */
+    @Transactional
+    public List<Person> savePeople(UUID constellationId, List<String> personNames, int firstOrdinal) {
+        var people = newPeople(constellationId, personNames, firstOrdinal);
+        insertPeople(people);
+        return people;
+    }
 
     /**
-     * Saves a person with the given name to the database.
+     * Creates people with the given names without saving them, numbered in the order of the names.
      *
      * @param constellationId the unique identifier for the current constellation
-     * @param personName the name of the person to be saved
+     * @param personNames the names of the people
+     * @param firstOrdinal the ordinal of the first person, the number of people already saved for the constellation
+     * @return the new people in the order of the names
+     */
+    public static List<Person> newPeople(UUID constellationId, List<String> personNames, int firstOrdinal) {
+        var people = new ArrayList<Person>(personNames.size());
+        for (var personName : personNames) {
+            var person = new Person();
+            person.setId(UUID.randomUUID());
+            person.setConstellationId(constellationId);
+            person.setName(personName);
+            person.setOrdinal(firstOrdinal + people.size());
+            people.add(person);
+        }
+        return people;
+    }
+
+    /**
+     * Inserts people created by {@link #newPeople(UUID, List, int)} in JDBC batches within one transaction.
+     *
+     * @param people the new people
      */
-    public Person savePerson(UUID constellationId, String personName) {
-        var person = new Person();
-        person.setId(UUID.randomUUID());
-        person.setConstellationId(constellationId);
-        person.setName(personName);
-        personRepository.save(person);
-        log.debug("Saved person: {} for run: {}", person, constellationId);
-        return person;
+    @Transactional
+    public void insertPeople(List<Person> people) {
+        jdbcTemplate.batchUpdate(INSERT_PERSON, people, BATCH_SIZE, (statement, person) -> {
+            statement.setObject(1, person.getId());
+            statement.setObject(2, person.getConstellationId());
+            statement.setString(3, person.getName());
+            statement.setInt(4, person.getOrdinal());
+        });
+        log.debug("Saved {} people", people.size());
     }
 
     /**
@@ -50,20 +95,21 @@ public class PersonDatabaseFacade {
      * Finds all persons associated with a specific run.
      *
      * @param constellationId the unique identifier for the run
-     * @return a list of persons associated with the given constellationId
+     * @return a list of persons associated with the given constellationId, in the order they were saved
      */
     public List<Person> findAllPeopleOfConstellation(UUID constellationId) {
         log.debug("Finding all people of constellation: {}", constellationId);
-        return personRepository.findByConstellationId(constellationId);
+        return personRepository.findByConstellationIdOrderByOrdinal(constellationId);
     }
 
     /**
-     * Deletes a person by their unique identifier.
+     * Deletes all people of a constellation with a single statement.
      *
-     * @param constellationId the UUID of the person to be deleted
+     * @param constellationId the UUID of the constellation
      */
+    @Transactional
     public void deleteAllPeopleOfConstellation(UUID constellationId) {
-        log.debug("Deleting all people for constellation: {}", constellationId);
-        personRepository.deleteAll(personRepository.findByConstellationId(constellationId));
+        var deleted = personRepository.deleteByConstellationId(constellationId);
+        log.debug("Deleted {} people of constellation: {}", deleted, constellationId);
     }
 }
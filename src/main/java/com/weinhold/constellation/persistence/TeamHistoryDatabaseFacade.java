@@ -0,0 +1,69 @@
+package com.weinhold.constellation.persistence;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.weinhold.constellation.persistence.model.TeamHistory;
+import com.weinhold.constellation.persistence.repository.TeamHistoryRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class TeamHistoryDatabaseFacade {
+
+    private final TeamHistoryRepository teamHistoryRepository;
+
+    /**
+     * Finds the pair history of a team.
+     *
+     * @param teamKey the key of the team
+     * @return an Optional containing the encoded history or empty if the team has none yet
+     */
+    public Optional<byte[]> findHistoryOfTeam(String teamKey) {
+        log.debug("Finding pair history of team {}", teamKey);
+        return teamHistoryRepository.findById(teamKey).map(TeamHistory::getHistory);
+    }
+
+    /**
+     * Finds the pair history of a team and locks it against concurrent updates until the surrounding transaction ends.
+     *
+     * @param teamKey the key of the team
+     * @return an Optional containing the encoded history or empty if the team has none yet
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<byte[]> lockHistoryOfTeam(String teamKey) {
+        log.debug("Locking pair history of team {}", teamKey);
+        return teamHistoryRepository.findByTeamKey(teamKey).map(TeamHistory::getHistory);
+    }
+
+    /**
+     * Inserts the first pair history of a team. If a concurrent transaction inserts it as well, this one waits for it
+     * and inserts nothing if it committed.
+     *
+     * @param teamKey the key of the team
+     * @param history the encoded history
+     * @return whether the history was inserted, {@code false} if the team already had one
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean insertHistoryOfTeam(String teamKey, byte[] history) {
+        log.debug("Inserting pair history of team {} ({} bytes)", teamKey, history.length);
+        return teamHistoryRepository.insertIfAbsent(teamKey, history) == 1;
+    }
+
+    /**
+     * Saves the pair history of a team, replacing the previous one.
+     *
+     * @param teamKey the key of the team
+     * @param history the encoded history
+     */
+    public void saveHistoryOfTeam(String teamKey, byte[] history) {
+        log.debug("Saving pair history of team {} ({} bytes)", teamKey, history.length);
+        teamHistoryRepository.save(new TeamHistory(teamKey, history));
+    }
+}
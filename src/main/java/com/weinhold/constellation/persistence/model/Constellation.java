@@ -0,0 +1,69 @@
+package com.weinhold.constellation.persistence.model;
+
+import java.util.UUID;
+
+import com.weinhold.constellation.rest.model.Rotation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Header of a constellation: the parameters its schedule was created with and how evenly its pairs met. Without stored
+ * rounds the schedule is regenerated from these parameters and the seed, with the strategy and the solver settings
+ * pinned when it was created.
+ */
+@Data
+@Entity
+@Table(name = "constellations")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Constellation {
+
+    @Id
+    private UUID id;
+    @Column
+    private int year;
+    @Column
+    @Enumerated(EnumType.STRING)
+    private Rotation rotation;
+    @Column
+    private int groupSize;
+    @Column
+    private int rounds;
+    @Column(name = "no_repeat_window")
+    private Integer window; // null for the configured window
+    @Column
+    private Long seed; // null if the schedule was not solved for a fixed seed
+    @Column
+    private String strategy; // solver strategy the schedule was solved with if forced or pinned, else null
+    @Column
+    private Integer restarts; // greedy restarts pinned for regeneration, null for the configured number
+    @Column
+    private Integer localSearchMoves; // swap attempts pinned for regeneration, null for the configured ones
+    @Column
+    private Integer blockSize; // people per block pinned for regeneration, null for the configured size
+    @Column
+    private boolean storedRounds; // false if only the header is stored and the rounds are regenerated on read
+    @Column
+    private long pairs;
+    @Column
+    private int minPairCount;
+    @Column
+    private int maxPairCount;
+    @Column
+    private double meanPairCount;
+    @Column
+    private double pairCountVariance;
+    @Column
+    private long neverMetPairs;
+
+}
@@ -1,33 +1,26 @@
 package com.weinhold.constellation.persistence.model;
 
+import java.util.List;
 import java.util.UUID;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * A group of a round. The groups of a round are stored together as one row of packed person ordinals, see
+ * {@link com.weinhold.constellation.persistence.ConstellationDatabaseFacade}.
+ */
 @Data
-@Entity
-@Table(name = "constellation_entries")
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class ConstellationEntry {
 
-    @Id
-    private UUID id;
-    @Column
     private UUID constellationId;
-    @Column
     private int roundNumber;
-    @Column
     private int groupNumber;
-    @Column
-    private String personIds;
+    private List<UUID> personIds;
 
 }
@@ -0,0 +1,13 @@
+package com.weinhold.constellation.persistence.model;
+
+/**
+ * A round as it is stored: one row per round instead of an entry per group, for holding many rounds in memory until
+ * they are inserted.
+ *
+ * @param roundNumber the 1-based number of the round
+ * @param groupSizes the sizes of the groups in group order
+ * @param members the ordinals of the members, group by group, packed like in the table
+ */
+public record PackedRound(int roundNumber, int[] groupSizes, byte[] members) {
+
+}
@@ -20,4 +20,6 @@ public class Person {
     private UUID constellationId;
     @Column
     private String name;
+    @Column
+    private int ordinal; // position of the person within the constellation, starting at 0
 }
@@ -0,0 +1,26 @@
+package com.weinhold.constellation.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pair history of a team across all its constellations, stored as a single blob.
+ */
+@Data
+@Entity
+@Table(name = "team_histories")
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamHistory {
+
+    @Id
+    private String teamKey;
+    @Column
+    private byte[] history;
+
+}
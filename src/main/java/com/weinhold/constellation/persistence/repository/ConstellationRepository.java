@@ -1,22 +1,13 @@
 package com.weinhold.constellation.persistence.repository;
 
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.Constellation;
 
 /**
- * Repository interface for managing Person entities.
+ * Repository interface for managing Constellation headers.
  */
-public interface ConstellationRepository extends JpaRepository<ConstellationEntry, UUID> {
-
-    /**
-     * Finds all constellation entries associated with a specific run ID.
-     *
-     * @param constellationId the UUID of the constellation
-     * @return a list of constellation entries for the given constellation ID
-     */
-    List<ConstellationEntry> findByConstellationId(UUID constellationId);
+public interface ConstellationRepository extends JpaRepository<Constellation, UUID> {
 }
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.weinhold.constellation.persistence.model.Person;
 
@@ -13,10 +15,20 @@ import com.weinhold.constellation.persistence.model.Person;
 public interface PersonRepository extends JpaRepository<Person, UUID> {
 
     /**
-     * Finds all persons associated with a specific run.
+     * Finds all persons associated with a specific run in the order they were added.
      *
      * @param constellationId the unique identifier for the constellation
-     * @return a list of persons associated with the given constellationId
+     * @return a list of persons associated with the given constellationId, ordered by ordinal
      */
-    List<Person> findByConstellationId(UUID constellationId);
+    List<Person> findByConstellationIdOrderByOrdinal(UUID constellationId);
+
+    /**
+     * Deletes all persons associated with a specific run in a single statement, without loading them first.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @return the number of persons deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Person p WHERE p.constellationId = :constellationId")
+    int deleteByConstellationId(UUID constellationId);
 }
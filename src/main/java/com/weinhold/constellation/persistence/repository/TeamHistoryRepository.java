@@ -0,0 +1,40 @@
+package com.weinhold.constellation.persistence.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.weinhold.constellation.persistence.model.TeamHistory;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository interface for managing TeamHistory entities.
+ */
+public interface TeamHistoryRepository extends JpaRepository<TeamHistory, String> {
+
+    /**
+     * Finds the history of a team and locks its row until the end of the transaction.
+     *
+     * @param teamKey the key of the team
+     * @return the history or empty if the team has none yet
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TeamHistory> findByTeamKey(String teamKey);
+
+    /**
+     * Inserts the first history of a team unless a concurrent transaction inserted it first, waiting for that one to
+     * finish.
+     *
+     * @param teamKey the key of the team
+     * @param history the encoded history
+     * @return the number of rows inserted, 0 if the team already had a history
+     */
+    @Modifying
+    @Query(value = "INSERT INTO groupchat_constellation_creator.team_histories (team_key, history) "
+        + "VALUES (:teamKey, :history) ON CONFLICT (team_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(String teamKey, byte[] history);
+}
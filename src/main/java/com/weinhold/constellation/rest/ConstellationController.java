@@ -14,15 +14,21 @@ import java.util.UUID;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.weinhold.constellation.creator.ConstellationCreationFacade;
-import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
-import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.creator.files.zip.ZipFileCreatorService;
+import com.weinhold.constellation.creator.model.CreatedConstellation;
 import com.weinhold.constellation.rest.model.ConstellationInput;
+import com.weinhold.constellation.rest.model.ReplanInput;
+import com.weinhold.constellation.rest.validation.ReplanInputValidator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,48 +39,88 @@ import lombok.extern.slf4j.Slf4j;
 public class ConstellationController {
 
     private static final String CONTENT_DISPOSITION_FORMAT = "attachment; filename=\"%s\"";
+    private static final String FAIRNESS_HEADER = "X-Constellation-Fairness";
 
-    private final PersonDatabaseFacade personDatabaseFacade;
-    private final ConstellationDatabaseFacade constellationDatabaseFacade;
     private final ConstellationCreationFacade constellationCreationFacade;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint to create constellations based on the provided input.
      *
      * @param input the constellation input containing people, number of groups, rotation, and year
-     * @return a schedule of groups for each round
+     * @return a schedule of groups for each round, with a JSON summary of how evenly the pairs met in the
+     *         {@value #FAIRNESS_HEADER} header
      */
     @PostMapping(value = "/api/v1/constellations", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_OCTET_STREAM_VALUE)
     public ResponseEntity<Object> createConstellations(@RequestBody ConstellationInput input) throws IOException {
         var constellationId = UUID.randomUUID();
         log.info("Creating constellation with id {}: {}", constellationId, input);
+        CreatedConstellation constellation;
         try {
             validateInput(input);
+            constellation = constellationCreationFacade.createConstellationFile(input, constellationId);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid input for constellation creation: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
-        var constellationFile = constellationCreationFacade.createConstellationFile(input, constellationId);
+        var constellationFile = constellation.getFile();
         return ResponseEntity.ok() // Should be created (201), but I did not implement Upload with Url, so ok (200) will do
                              .header(CONTENT_DISPOSITION, format(CONTENT_DISPOSITION_FORMAT, constellationFile.getName()))
+                             .header(FAIRNESS_HEADER, objectMapper.writeValueAsString(constellation.getFairness()))
                              .contentType(parseMediaType(APPLICATION_OCTET_STREAM_VALUE))
                              .body(readAllBytes(constellationFile.toPath()));
     }
 
+    /**
+     * Endpoint to export the files of a constellation again, from its stored rounds or regenerated from its seed. The
+     * ZIP file is streamed into the response round by round while the rounds are read.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @return the schedule of groups for each round, with a JSON summary of how evenly the pairs met when the
+     *         constellation was created in the {@value #FAIRNESS_HEADER} header, or not found for unknown constellations
+     */
     @GetMapping(value = "/api/v1/constellations/{constellationId}", produces = APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<byte[]> getConstellation(@PathVariable String constellationId) {
+    public ResponseEntity<StreamingResponseBody> getConstellation(@PathVariable String constellationId)
+        throws IOException {
         log.info("Received request to find constellation with id {}", constellationId);
+        var id = UUID.fromString(constellationId);
+        var fairness = constellationCreationFacade.findFairness(id);
+        if (fairness.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                             .header(CONTENT_DISPOSITION, format(CONTENT_DISPOSITION_FORMAT,
+                                 ZipFileCreatorService.fileName(id)))
+                             .header(FAIRNESS_HEADER, objectMapper.writeValueAsString(fairness.get()))
+                             .contentType(parseMediaType(APPLICATION_OCTET_STREAM_VALUE))
+                             .body(out -> constellationCreationFacade.exportConstellationFile(id, out));
+    }
 
-        // TODO: Get all entries from DB and generate workbook on the fly or download from storage
-        return ResponseEntity.ok().contentType(parseMediaType(APPLICATION_OCTET_STREAM_VALUE)).body(new byte[0]);
+    /**
+     * Endpoint to re-plan a constellation after people joined or left. Only the rounds from the effective round on are
+     * solved again and replaced.
+     *
+     * @param constellationId the unique identifier for the constellation
+     * @param input the replan input containing the effective round and the people who join or leave
+     * @return no content once the rounds are replaced
+     */
+    @PatchMapping(value = "/api/v1/constellations/{constellationId}", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> replanConstellation(@PathVariable String constellationId, @RequestBody ReplanInput input) {
+        log.info("Re-planning constellation with id {}: {}", constellationId, input);
+        try {
+            ReplanInputValidator.validateInput(input);
+            constellationCreationFacade.replanConstellation(UUID.fromString(constellationId), input);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid input for constellation re-planning: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping(value = "/api/v1/constellations/{constellationId}")
     public ResponseEntity<Void> deleteConstellation(@PathVariable String constellationId) {
         log.info("Received request to delete for constellation with id {}", constellationId);
-        var constellationUUID = UUID.fromString(constellationId);
-        personDatabaseFacade.deleteAllPeopleOfConstellation(constellationUUID);
-        constellationDatabaseFacade.deleteAllEntriesOfConstellation(constellationUUID);
+        constellationCreationFacade.deleteConstellation(UUID.fromString(constellationId));
         // TODO: Delete constellation from storage
         return ResponseEntity.noContent().build();
     }
@@ -1,6 +1,7 @@
 package com.weinhold.constellation.rest.model;
 
 import java.util.List;
+import java.util.Map;
 
 import lombok.Data;
 
@@ -11,5 +12,12 @@ public class ConstellationInput {
     private int numberOfGroups;
     private Rotation rotation;
     private int year;
+    private Integer window;
+    private Long timeBudgetMillis;
+    private String teamKey;
+    private List<PairingConstraint> constraints;
+    private Map<String, Map<String, String>> attributes; // per person name, e.g. department, location or seniority
+    private Integer diversityWeight;
+    private String strategy; // forces a solver strategy, for testing
 
 }
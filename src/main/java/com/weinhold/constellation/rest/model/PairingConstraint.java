@@ -0,0 +1,13 @@
+package com.weinhold.constellation.rest.model;
+
+import lombok.Data;
+
+@Data
+public class PairingConstraint {
+
+    private String first;
+    private String second;
+    private Integer fromRound; // first round the two are kept apart, from the first round if unset
+    private Integer toRound; // last round the two are kept apart, until the last round if unset
+
+}
@@ -0,0 +1,16 @@
+package com.weinhold.constellation.rest.model;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ReplanInput {
+
+    private int effectiveRound;
+    private List<String> addedPeople;
+    private List<String> removedPeople;
+    private Integer window;
+    private Long timeBudgetMillis;
+
+}
@@ -1,11 +1,14 @@
 package com.weinhold.constellation.rest.validation;
 
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNullElse;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.time.Year;
+import java.util.List;
 
 import com.weinhold.constellation.rest.model.ConstellationInput;
+import com.weinhold.constellation.rest.model.PairingConstraint;
 
 import lombok.NoArgsConstructor;
 
@@ -32,5 +35,36 @@ public class ConstellationInputValidator {
         if (input.getYear() < currentYear) {
             throw new IllegalArgumentException(format("Year must be %s or later", currentYear));
         }
+        if (input.getWindow() != null && input.getWindow() < 0) {
+            throw new IllegalArgumentException("Window must not be negative");
+        }
+        if (input.getTimeBudgetMillis() != null && input.getTimeBudgetMillis() <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+        if (input.getTeamKey() != null && (input.getTeamKey().isBlank() || input.getTeamKey().length() > 256)) {
+            throw new IllegalArgumentException("Team key must have 1 to 256 characters");
+        }
+        if (input.getConstraints() != null) {
+            input.getConstraints().forEach(constraint -> validateConstraint(constraint, input.getPeople()));
+        }
+        if (input.getAttributes() != null && !input.getPeople().containsAll(input.getAttributes().keySet())) {
+            throw new IllegalArgumentException("Attributes must belong to the people");
+        }
+        if (input.getDiversityWeight() != null && input.getDiversityWeight() < 0) {
+            throw new IllegalArgumentException("Diversity weight must not be negative");
+        }
+    }
+
+    private static void validateConstraint(PairingConstraint constraint, List<String> people) {
+        if (constraint == null || !people.contains(constraint.getFirst()) || !people.contains(constraint.getSecond())) {
+            throw new IllegalArgumentException("Constraints must name two of the people");
+        }
+        if (constraint.getFirst().equals(constraint.getSecond())) {
+            throw new IllegalArgumentException("Constraints must name two different people");
+        }
+        var fromRound = requireNonNullElse(constraint.getFromRound(), 1);
+        if (fromRound < 1 || constraint.getToRound() != null && constraint.getToRound() < fromRound) {
+            throw new IllegalArgumentException("Constraint rounds must start at 1 and not end before they start");
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.weinhold.constellation.rest.validation;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.List;
+
+import com.weinhold.constellation.rest.model.ReplanInput;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = PRIVATE)
+public class ReplanInputValidator {
+
+    /**
+     * Validates the given ReplanInput. Whether the round and the people fit the constellation is checked when
+     * re-planning.
+     *
+     * @param input the ReplanInput to validate
+     * @throws IllegalArgumentException if any validation rule is violated
+     */
+    public static void validateInput(ReplanInput input) {
+        if (input.getEffectiveRound() < 1) {
+            throw new IllegalArgumentException("Effective round must be 1 or later");
+        }
+        if (isEmpty(input.getAddedPeople()) && isEmpty(input.getRemovedPeople())) {
+            throw new IllegalArgumentException("At least one person must be added or removed");
+        }
+        if (input.getWindow() != null && input.getWindow() < 0) {
+            throw new IllegalArgumentException("Window must not be negative");
+        }
+        if (input.getTimeBudgetMillis() != null && input.getTimeBudgetMillis() <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+    }
+
+    private static boolean isEmpty(List<String> people) {
+        return people == null || people.isEmpty();
+    }
+}
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS groupchat_constellation_creator.team_histories(
+     team_key varchar(256) NOT NULL,
+     history bytea NOT NULL,
+     PRIMARY KEY (team_key)
+);
@@ -0,0 +1,41 @@
+ALTER TABLE groupchat_constellation_creator.people ADD COLUMN ordinal integer;
+UPDATE groupchat_constellation_creator.people person
+   SET ordinal = numbered.ordinal
+  FROM (SELECT id, row_number() OVER (PARTITION BY constellation_id ORDER BY id) - 1 AS ordinal
+          FROM groupchat_constellation_creator.people) numbered
+ WHERE person.id = numbered.id;
+ALTER TABLE groupchat_constellation_creator.people ALTER COLUMN ordinal SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS people_constellation_id_ordinal
+    ON groupchat_constellation_creator.people (constellation_id, ordinal);
+
+CREATE TABLE IF NOT EXISTS groupchat_constellation_creator.constellation_rounds(
+     constellation_id uuid NOT NULL,
+     round_number integer NOT NULL,
+     group_sizes integer[] NOT NULL,
+     members bytea NOT NULL,
+     PRIMARY KEY (constellation_id, round_number)
+);
+
+-- members are the ordinals of the people, group by group, as unsigned big-endian shorts for up to 65536 people and
+-- as ints above
+WITH team_sizes AS (
+    SELECT constellation_id, count(*) AS people_count
+      FROM groupchat_constellation_creator.people
+     GROUP BY constellation_id
+), groups AS (
+    SELECT entry.constellation_id, entry.round_number, entry.group_number, count(*) AS group_size,
+           string_agg(CASE WHEN team.people_count <= 65536 THEN substring(int4send(person.ordinal) FROM 3)
+                           ELSE int4send(person.ordinal) END, ''::bytea ORDER BY member.position) AS members
+      FROM groupchat_constellation_creator.constellation_entries entry
+     CROSS JOIN LATERAL unnest(string_to_array(entry.person_ids, ',')) WITH ORDINALITY AS member(person_id, position)
+      JOIN groupchat_constellation_creator.people person ON person.id = trim(member.person_id)::uuid
+      JOIN team_sizes team ON team.constellation_id = entry.constellation_id
+     GROUP BY entry.constellation_id, entry.round_number, entry.group_number
+)
+INSERT INTO groupchat_constellation_creator.constellation_rounds (constellation_id, round_number, group_sizes, members)
+SELECT constellation_id, round_number, array_agg(group_size::integer ORDER BY group_number),
+       string_agg(members, ''::bytea ORDER BY group_number)
+  FROM groups
+ GROUP BY constellation_id, round_number;
+
+DROP TABLE groupchat_constellation_creator.constellation_entries;
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS groupchat_constellation_creator.constellations(
+     id uuid NOT NULL,
+     year integer NOT NULL,
+     rotation varchar(16) NOT NULL,
+     group_size integer NOT NULL,
+     rounds integer NOT NULL,
+     no_repeat_window integer,
+     seed bigint,
+     strategy varchar(64),
+     stored_rounds boolean NOT NULL,
+     pairs bigint NOT NULL,
+     min_pair_count integer NOT NULL,
+     max_pair_count integer NOT NULL,
+     mean_pair_count double precision NOT NULL,
+     pair_count_variance double precision NOT NULL,
+     never_met_pairs bigint NOT NULL,
+     PRIMARY KEY (id)
+);
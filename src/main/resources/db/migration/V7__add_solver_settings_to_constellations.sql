@@ -0,0 +1,6 @@
+-- solver settings a seed-only schedule depends on, pinned when it is created so it is regenerated the same way
+-- whatever the configuration of the instance reading it
+ALTER TABLE groupchat_constellation_creator.constellations
+    ADD COLUMN restarts integer,
+    ADD COLUMN local_search_moves integer,
+    ADD COLUMN block_size integer;
@@ -1,8 +1,11 @@
 package com.weinhold.constellation.creator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -10,7 +13,6 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
@@ -20,26 +22,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.weinhold.constellation.creator.model.ScheduleOptions;
+import com.weinhold.constellation.creator.solver.ScheduleSolver;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.cache.ScheduleCache;
+import com.weinhold.constellation.creator.solver.cache.ScheduleCacheProperties;
+import com.weinhold.constellation.creator.solver.strategy.ExactStrategy;
+import com.weinhold.constellation.creator.solver.strategy.GreedyStrategy;
+import com.weinhold.constellation.creator.solver.library.ScheduleLibrary;
+import com.weinhold.constellation.creator.solver.library.ScheduleLibraryProperties;
 import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
 import com.weinhold.constellation.persistence.model.ConstellationEntry;
 import com.weinhold.constellation.persistence.model.Person;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class ConstellationEntryCreationFacadeTest {
 
     @Mock
     private ConstellationDatabaseFacade constellationDatabaseFacade;
 
-    @InjectMocks
     private ConstellationEntryCreationFacade facade;
 
     @BeforeEach
     void setUp() {
-        // nothing for now
+        facade = createFacade(new SolverProperties());
     }
 
     @Test
@@ -47,7 +58,7 @@ class ConstellationEntryCreationFacadeTest {
         var result = facade.scheduleGroups(new ArrayList<>(), 3, 5, UUID.randomUUID());
 
         assertEquals(0, result.size(), "No entries should be created for an empty people list");
-        verify(constellationDatabaseFacade, never()).saveConstellationEntry(any());
+        verify(constellationDatabaseFacade, never()).saveConstellationEntries(any(), any());
     }
 
     @Test
@@ -55,22 +66,20 @@ class ConstellationEntryCreationFacadeTest {
         var people = mockPeople(6);
         var constellationId = UUID.randomUUID();
 
-        var captor = ArgumentCaptor.forClass(ConstellationEntry.class);
-
         var result = facade.scheduleGroups(people, 3, 2, constellationId);
 
-        verify(constellationDatabaseFacade, times(4)).saveConstellationEntry(captor.capture());
+        var saved = savedEntries();
+        assertEquals(4, saved.size());
         assertEquals(4, result.size(), "Should persist 2 rounds × 2 groups = 4 entries");
 
-        var ids = people.stream().map(p -> p.getId().toString()).collect(Collectors.toSet());
+        var ids = people.stream().map(Person::getId).collect(Collectors.toSet());
         assertEquals(6, ids.size());
 
-        var saved = captor.getAllValues();
         var groupsPerRound = 2;
 
         for (int r = 0; r < 2; r++) {
             var roundSlice = saved.subList(r * groupsPerRound, (r + 1) * groupsPerRound);
-            var roundIds = roundSlice.stream().flatMap(e -> Arrays.stream(e.getPersonIds().split(","))).toList();
+            var roundIds = roundSlice.stream().flatMap(e -> e.getPersonIds().stream()).toList();
 
             assertEquals(6, roundIds.size(), "Each round must place all participants exactly once");
             assertEquals(6, new HashSet<>(roundIds).size(), "No duplicate person assignments within a round");
@@ -79,8 +88,7 @@ class ConstellationEntryCreationFacadeTest {
         }
 
         for (ConstellationEntry entry : saved) {
-            var size = entry.getPersonIds().isBlank() ? 0 : entry.getPersonIds().split(",").length;
-            assertEquals(3, size, "Each group should have size 3 for 6 people with groupSize 3");
+            assertEquals(3, entry.getPersonIds().size(), "Each group should have size 3 for 6 people with groupSize 3");
         }
     }
 
@@ -89,24 +97,20 @@ class ConstellationEntryCreationFacadeTest {
         var people = mockPeople(10);
         var constellationId = UUID.randomUUID();
 
-        var captor = ArgumentCaptor.forClass(ConstellationEntry.class);
-
         var result = facade.scheduleGroups(people, 3, 1, constellationId);
 
-        verify(constellationDatabaseFacade, times(4)).saveConstellationEntry(captor.capture());
+        var saved = savedEntries();
+        assertEquals(4, saved.size());
         assertEquals(4, result.size(), "Should persist 1 round × 4 groups = 4 entries");
 
-        var saved = captor.getAllValues();
-
-        var allIds = people.stream().map(p -> p.getId().toString()).collect(Collectors.toSet());
-        var roundIds = saved.stream().flatMap(e -> Arrays.stream(e.getPersonIds().split(","))).toList();
+        var allIds = people.stream().map(Person::getId).collect(Collectors.toSet());
+        var roundIds = saved.stream().flatMap(e -> e.getPersonIds().stream()).toList();
         assertEquals(10, roundIds.size(), "Total assigned must be 10 in the round");
         assertEquals(10, new HashSet<>(roundIds).size(), "No duplicates across groups in the round");
         assertTrue(allIds.containsAll(roundIds) && new HashSet<>(roundIds).containsAll(allIds),
             "Round must cover all participant IDs");
 
-        var sizes =
-            saved.stream().map(e -> e.getPersonIds().isBlank() ? 0 : e.getPersonIds().split(",").length).sorted().toList();
+        var sizes = saved.stream().map(e -> e.getPersonIds().size()).sorted().toList();
         assertEquals(List.of(2, 2, 3, 3), sizes, "Expected group size multiset [3,3,2,2]");
     }
 
@@ -115,16 +119,15 @@ class ConstellationEntryCreationFacadeTest {
         var people = mockPeople(2);
         var constellationId = UUID.randomUUID();
 
-        var captor = ArgumentCaptor.forClass(ConstellationEntry.class);
-
         var result = facade.scheduleGroups(people, 3, 1, constellationId);
 
-        verify(constellationDatabaseFacade, times(1)).saveConstellationEntry(captor.capture());
+        var saved = savedEntries();
+        assertEquals(1, saved.size());
         assertEquals(1, result.size(), "Should persist a single group entry");
 
-        var entry = captor.getValue();
-        var ids = new HashSet<>(Arrays.asList(entry.getPersonIds().split(",")));
-        var expected = people.stream().map(p -> p.getId().toString()).collect(Collectors.toSet());
+        var entry = saved.get(0);
+        var ids = new HashSet<>(entry.getPersonIds());
+        var expected = people.stream().map(Person::getId).collect(Collectors.toSet());
 
         assertEquals(2, ids.size(), "Group should contain both participants");
         assertEquals(expected, ids, "Group membership must match the two input participants");
@@ -132,6 +135,160 @@ class ConstellationEntryCreationFacadeTest {
         assertEquals(1, entry.getGroupNumber(), "Single group index should be 1-based");
     }
 
+    @Test
+    void scheduleGroups_sameSeedDifferentParallelism_sameSchedule() {
+        var people = mockPeople(12);
+        var sequential = new SolverProperties();
+        sequential.setParallelism(1);
+        sequential.setRestarts(20);
+        var parallel = new SolverProperties();
+        parallel.setParallelism(4);
+        parallel.setRestarts(20);
+
+        var options = ScheduleOptions.builder().seed(42L).build();
+
+        var sequentialResult = createFacade(sequential).scheduleGroups(people, 3, 12, UUID.randomUUID(), options);
+        var parallelResult = createFacade(parallel).scheduleGroups(people, 3, 12, UUID.randomUUID(), options);
+
+        assertEquals(sequentialResult.stream().map(ConstellationEntry::getPersonIds).toList(),
+            parallelResult.stream().map(ConstellationEntry::getPersonIds).toList(),
+            "The schedule must only depend on the seed, not on the number of threads");
+    }
+
+    @Test
+    void scheduleGroups_sameShapeForOtherTeam_cachedScheduleMappedOntoNewPeople() {
+        var options = ScheduleOptions.builder().seed(7L).build();
+        var firstTeam = mockPeople(11);
+        var secondTeam = mockPeople(11);
+
+        var first = facade.scheduleGroups(firstTeam, 3, 6, UUID.randomUUID(), options);
+        var second = facade.scheduleGroups(secondTeam, 3, 6, UUID.randomUUID(), options);
+
+        assertEquals(indices(first, firstTeam), indices(second, secondTeam), "A cache hit must reuse the index schedule");
+    }
+
+    @Test
+    void streamGroups_roundsConsumedOneByOne_entriesInsertedInOneBatchWithLastRound() {
+        var people = mockPeople(10);
+
+        var rounds = facade.streamGroups(people, 3, 5, UUID.randomUUID(), new ScheduleOptions()).iterator();
+
+        var first = rounds.next();
+        assertEquals(1, first.getRoundNumber());
+        assertEquals(4, first.getEntries().size());
+        verify(constellationDatabaseFacade, never()).saveConstellationEntries(any(), any());
+        rounds.forEachRemaining(round -> {});
+        verify(constellationDatabaseFacade, times(1)).saveConstellationEntries(any(), any());
+        assertEquals(20, savedEntries().size());
+    }
+
+    @Test
+    void replanGroups_personLeftBeforeRoundThree_onlyRemainingRoundsPlanned() {
+        var people = mockPeople(6);
+        var constellationId = UUID.randomUUID();
+        var past = facade.scheduleGroups(people, 3, 2, constellationId);
+        var team = people.subList(0, 5);
+
+        var result = facade.replanGroups(team, 3, past, 3, 4, constellationId, new ScheduleOptions());
+
+        assertEquals(List.of(3, 3, 4, 4, 5, 5, 6, 6), result.stream().map(ConstellationEntry::getRoundNumber).toList());
+        var leftId = people.get(5).getId();
+        assertTrue(result.stream().noneMatch(entry -> entry.getPersonIds().contains(leftId)));
+        assertEquals(4 + 8, savedEntries().size());
+    }
+
+    @Test
+    void generateGroups_reproducibleConstellationReadByFreshInstance_sameRoundsNothingSaved() {
+        var people = mockPeople(40);
+        var constellationId = UUID.randomUUID();
+        var options = ScheduleOptions.builder().seed(7L).build();
+        assertTrue(facade.isReproducible(options));
+
+        var created = facade.generateGroups(people, 5, 12, constellationId, options).toList();
+        var regenerated = createFacade(new SolverProperties()).generateGroups(people, 5, 12, constellationId, options)
+                                                              .toList();
+
+        assertEquals(created, regenerated);
+        verify(constellationDatabaseFacade, never()).saveConstellationEntries(any(), any());
+        assertFalse(facade.isReproducible(ScheduleOptions.builder().seed(7L).strategy(ExactStrategy.NAME).build()),
+            "The node budget of the exact search is not stored");
+    }
+
+    @Test
+    void generateGroups_pinnedOptionsRegeneratedWithOtherParallelismAndSettings_sameRounds() {
+        var people = mockPeople(200);
+        var constellationId = UUID.randomUUID();
+        var creating = new SolverProperties();
+        creating.setParallelism(1);
+        var options = new ScheduleOptions();
+        var creator = createFacade(creating);
+        creator.pinReproducible(people.size(), 5, 12, options);
+        var created = creator.generateGroups(people, 5, 12, constellationId, options).toList();
+        var reading = new SolverProperties();
+        reading.setParallelism(4);
+        reading.setRestarts(3);
+        reading.setLocalSearchMoves(2);
+        reading.setDecompositionThreshold(100);
+        reading.setBlockSize(64);
+        var reader = createFacade(reading);
+        var pinned = ScheduleOptions.builder()
+                                    .seed(options.getSeed())
+                                    .window(options.getWindow())
+                                    .strategy(options.getStrategy())
+                                    .restarts(options.getRestarts())
+                                    .localSearchMoves(options.getLocalSearchMoves())
+                                    .blockSize(options.getBlockSize())
+                                    .build();
+
+        var regenerated = reader.generateGroups(people, 5, 12, constellationId, pinned).toList();
+        var unpinned = reader.generateGroups(people, 5, 12, constellationId,
+            ScheduleOptions.builder().seed(options.getSeed()).window(options.getWindow()).build()).toList();
+
+        assertEquals(GreedyStrategy.NAME, options.getStrategy());
+        assertEquals(created, regenerated);
+        assertNotEquals(created, unpinned, "The settings of the reading instance alone must give other rounds");
+    }
+
+    @Test
+    void generateGroups_pinnedConstellationReadTwice_secondReadServedFromCache() {
+        var people = mockPeople(40);
+        var constellationId = UUID.randomUUID();
+        var properties = new SolverProperties();
+        var registry = new SimpleMeterRegistry();
+        var cache = new ScheduleCache(new ScheduleCacheProperties(), registry);
+        var reader = new ConstellationEntryCreationFacade(constellationDatabaseFacade,
+            ScheduleSolver.standalone(properties), properties,
+            new ScheduleLibrary(new ScheduleLibraryProperties(), new SimpleMeterRegistry()), cache);
+        var options = new ScheduleOptions();
+        reader.pinReproducible(people.size(), 5, 12, options);
+
+        var first = reader.generateGroups(people, 5, 12, constellationId, options).toList();
+        var second = reader.generateGroups(people, 5, 12, constellationId, options).toList();
+
+        assertEquals(first, second);
+        assertEquals(1, cache.size());
+        assertEquals(1, registry.get("constellation.schedule.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ConstellationEntry> savedEntries() {
+        ArgumentCaptor<List<ConstellationEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(constellationDatabaseFacade, atLeast(0)).saveConstellationEntries(captor.capture(), any());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static List<List<Integer>> indices(List<ConstellationEntry> entries, List<Person> people) {
+        var ids = people.stream().map(Person::getId).toList();
+        return entries.stream().map(entry -> entry.getPersonIds().stream().map(ids::indexOf).toList()).toList();
+    }
+
+    private ConstellationEntryCreationFacade createFacade(SolverProperties properties) {
+        var solver = ScheduleSolver.standalone(properties);
+        return new ConstellationEntryCreationFacade(constellationDatabaseFacade, solver, properties,
+            new ScheduleLibrary(new ScheduleLibraryProperties(), new SimpleMeterRegistry()),
+            new ScheduleCache(new ScheduleCacheProperties(), new SimpleMeterRegistry()));
+    }
+
     private static List<Person> mockPeople(int n) {
         var list = new ArrayList<Person>(n);
         for (int i = 0; i < n; i++) {
@@ -0,0 +1,48 @@
+package com.weinhold.constellation.creator;
+
+import static org.mockito.Mockito.inOrder;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.weinhold.constellation.persistence.ConstellationDatabaseFacade;
+import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.persistence.model.Constellation;
+import com.weinhold.constellation.persistence.model.PackedRound;
+
+@ExtendWith(MockitoExtension.class)
+class ConstellationStorageFacadeTest {
+
+    @Mock
+    private PersonDatabaseFacade personDatabaseFacade;
+    @Mock
+    private ConstellationDatabaseFacade constellationDatabaseFacade;
+    @Mock
+    private TeamHistoryFacade teamHistoryFacade;
+
+    @InjectMocks
+    private ConstellationStorageFacade facade;
+
+    @Test
+    void replaceRounds_roundsFromThree_joinedPeopleInsertedAndRoundsReplacedBeforeHeader() {
+        var constellationId = UUID.randomUUID();
+        var header = Constellation.builder().id(constellationId).build();
+        var joining = PersonDatabaseFacade.newPeople(constellationId, List.of("Dora"), 6);
+        var rounds = List.of(new PackedRound(3, new int[] { 3, 3 }, new byte[12]),
+            new PackedRound(4, new int[] { 3, 3 }, new byte[12]));
+
+        facade.replaceRounds(constellationId, header, joining, rounds);
+
+        var order = inOrder(personDatabaseFacade, constellationDatabaseFacade);
+        order.verify(personDatabaseFacade).insertPeople(joining);
+        order.verify(constellationDatabaseFacade).deleteEntriesOfConstellationFromRound(constellationId, 3);
+        order.verify(constellationDatabaseFacade).saveRounds(constellationId, rounds);
+        order.verify(constellationDatabaseFacade).saveConstellation(header);
+    }
+}
@@ -0,0 +1,58 @@
+package com.weinhold.constellation.creator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.weinhold.constellation.creator.history.TeamPairCounts;
+import com.weinhold.constellation.persistence.PersonDatabaseFacade;
+import com.weinhold.constellation.persistence.TeamHistoryDatabaseFacade;
+
+@ExtendWith(MockitoExtension.class)
+class TeamHistoryFacadeTest {
+
+    private static final String TEAM = "team";
+
+    @Mock
+    private TeamHistoryDatabaseFacade teamHistoryDatabaseFacade;
+
+    @InjectMocks
+    private TeamHistoryFacade facade;
+
+    @Test
+    void recordPairCounts_firstHistoryInsertedConcurrently_mergedIntoCommittedOne() {
+        var concurrent = TeamPairCounts.empty().merge(List.of("Anna", "Ben"), new int[] { 2 });
+        when(teamHistoryDatabaseFacade.lockHistoryOfTeam(TEAM)).thenReturn(Optional.empty(),
+            Optional.of(concurrent.encode()));
+        when(teamHistoryDatabaseFacade.insertHistoryOfTeam(eq(TEAM), any())).thenReturn(false);
+
+        facade.recordPairCounts(TEAM, PersonDatabaseFacade.newPeople(null, List.of("Anna", "Ben"), 0), new int[] { 1 });
+
+        var saved = ArgumentCaptor.forClass(byte[].class);
+        verify(teamHistoryDatabaseFacade).saveHistoryOfTeam(eq(TEAM), saved.capture());
+        assertArrayEquals(new int[] { 3 }, TeamPairCounts.decode(saved.getValue()).counts(), "No meeting may be lost");
+    }
+
+    @Test
+    void recordPairCounts_noHistoryYet_insertedWithoutUpdate() {
+        when(teamHistoryDatabaseFacade.lockHistoryOfTeam(TEAM)).thenReturn(Optional.empty());
+        when(teamHistoryDatabaseFacade.insertHistoryOfTeam(eq(TEAM), any())).thenReturn(true);
+
+        facade.recordPairCounts(TEAM, PersonDatabaseFacade.newPeople(null, List.of("Anna", "Ben"), 0), new int[] { 1 });
+
+        verify(teamHistoryDatabaseFacade, never()).saveHistoryOfTeam(any(), any());
+    }
+}
@@ -1,10 +1,92 @@
 package com.weinhold.constellation.creator.files.icalendar;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
+import com.weinhold.constellation.creator.files.model.FileCreationInput;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.Person;
+
+import biweekly.Biweekly;
+
 class ICSFileCreatorServiceTest {
 
     @Test
-    void createFile() {
+    void createFile_twelveRoundsOfTwoGroups_oneEventPerEntry() throws IOException {
+        var anna = person("Anna");
+        var ben = person("Ben");
+        var entries = new ArrayList<ConstellationEntry>();
+        for (var round = 1; round <= 12; round++) {
+            entries.add(entry(round, 1, anna));
+            entries.add(entry(round, 2, ben));
+        }
+        var input = FileCreationInput.builder()
+                                     .constellationId(UUID.randomUUID())
+                                     .year(2025)
+                                     .people(List.of(anna, ben))
+                                     .dates(IntStream.rangeClosed(1, 12).mapToObj(month -> LocalDate.of(2025, month, 1)).toList())
+                                     .entries(entries)
+                                     .build();
+
+        var file = new ICSFileCreatorService().createFile(input);
+        try {
+            var calendar = Biweekly.parse(file).first();
+
+            assertEquals(24, calendar.getEvents().size());
+            assertTrue(calendar.getEvents().get(0).getSummary().getValue().contains("Anna"));
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    @Test
+    void open_writer_calendarWrittenRoundByRoundAndWriterLeftOpen() {
+        var anna = person("Anna");
+        var ben = person("Ben");
+        var input = FileCreationInput.builder()
+                                     .constellationId(UUID.randomUUID())
+                                     .year(2025)
+                                     .people(List.of(anna, ben))
+                                     .dates(IntStream.rangeClosed(1, 12).mapToObj(month -> LocalDate.of(2025, month, 1)).toList())
+                                     .build();
+        var out = new StringWriter();
+
+        var writer = new ICSFileCreatorService().open(input, out);
+        for (var round = 1; round <= 12; round++) {
+            writer.write(new ScheduleRound(round, List.of(entry(round, 1, anna), entry(round, 2, ben))));
+        }
+        writer.finish();
+        out.write("still open");
+
+        var calendar = Biweekly.parse(out.toString().replace("still open", "")).first();
+        assertEquals(24, calendar.getEvents().size());
+        assertTrue(out.toString().endsWith("END:VCALENDAR\r\nstill open"));
+    }
+
+    private static Person person(String name) {
+        var person = new Person();
+        person.setId(UUID.randomUUID());
+        person.setName(name);
+        return person;
+    }
+
+    private static ConstellationEntry entry(int round, int group, Person person) {
+        return ConstellationEntry.builder()
+                                 .roundNumber(round)
+                                 .groupNumber(group)
+                                 .personIds(List.of(person.getId()))
+                                 .build();
     }
 }
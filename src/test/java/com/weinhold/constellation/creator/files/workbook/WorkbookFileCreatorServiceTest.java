@@ -1,10 +1,62 @@
 package com.weinhold.constellation.creator.files.workbook;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
+import com.weinhold.constellation.creator.files.model.FileCreationInput;
+import com.weinhold.constellation.creator.files.workbook.plan.AnnualPlanSheetCreator;
+import com.weinhold.constellation.creator.files.workbook.statistics.StatisticsSheetCreator;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.Person;
+
 class WorkbookFileCreatorServiceTest {
 
     @Test
     void createFile() {
     }
+
+    @Test
+    void openWorkbook_peopleNotSavedYet_pairsCountedForPeopleOfInput() throws IOException {
+        var anna = person("Anna");
+        var ben = person("Ben");
+        var input = FileCreationInput.builder()
+                                     .constellationId(UUID.randomUUID())
+                                     .year(2025)
+                                     .people(List.of(anna, ben))
+                                     .dates(IntStream.rangeClosed(1, 12).mapToObj(month -> LocalDate.of(2025, month, 1)).toList())
+                                     .build();
+        var service = new WorkbookFileCreatorService(new AnnualPlanSheetCreator(), new StatisticsSheetCreator());
+
+        var writer = service.openWorkbook(input);
+        writer.write(new ScheduleRound(1, List.of(entry(anna, ben))));
+        try (var workbook = writer.finish()) {
+            var statistics = workbook.getSheet("Statistics");
+
+            assertEquals("Ben", statistics.getRow(0).getCell(2).getStringCellValue());
+            assertEquals(1, statistics.getRow(1).getCell(2).getNumericCellValue());
+        }
+    }
+
+    private static Person person(String name) {
+        var person = new Person();
+        person.setId(UUID.randomUUID());
+        person.setName(name);
+        return person;
+    }
+
+    private static ConstellationEntry entry(Person... members) {
+        var entry = new ConstellationEntry();
+        entry.setRoundNumber(1);
+        entry.setGroupNumber(1);
+        entry.setPersonIds(List.of(members).stream().map(Person::getId).toList());
+        return entry;
+    }
 }
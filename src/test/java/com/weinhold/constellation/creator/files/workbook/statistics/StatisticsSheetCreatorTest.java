@@ -1,10 +1,58 @@
 package com.weinhold.constellation.creator.files.workbook.statistics;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
+import com.weinhold.constellation.creator.history.PairCountWriter;
+import com.weinhold.constellation.creator.model.ScheduleRound;
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.Person;
+
 class StatisticsSheetCreatorTest {
 
     @Test
     void createStatistics() {
     }
+
+    @Test
+    void openSheet_sharedPairCounter_sheetAndCallerReadSameCounts() throws IOException {
+        var people = List.of(person("Anna"), person("Ben"), person("Carl"));
+        var pairCounter = new PairCountWriter(people);
+
+        try (var workbook = new XSSFWorkbook()) {
+            var writer = new StatisticsSheetCreator().openSheet(workbook, people, pairCounter);
+            writer.write(new ScheduleRound(1, List.of(entry(1, people.get(0), people.get(1), people.get(2)))));
+            writer.write(new ScheduleRound(2, List.of(entry(2, people.get(0), people.get(1)))));
+            var sheet = writer.finish();
+
+            // Anna-Ben, Anna-Carl, Ben-Carl
+            assertArrayEquals(new int[] { 2, 1, 1 }, pairCounter.finish(), "Every pair must be counted exactly once");
+            assertEquals(2, sheet.getRow(1).getCell(2).getNumericCellValue());
+            assertEquals(2, sheet.getRow(2).getCell(1).getNumericCellValue());
+            assertEquals(1, sheet.getRow(3).getCell(2).getNumericCellValue());
+            assertEquals(pairCounter.summary().getMaxPairCount(), sheet.getRow(6).getCell(1).getNumericCellValue());
+        }
+    }
+
+    private static Person person(String name) {
+        var person = new Person();
+        person.setId(UUID.randomUUID());
+        person.setName(name);
+        return person;
+    }
+
+    private static ConstellationEntry entry(int round, Person... members) {
+        var entry = new ConstellationEntry();
+        entry.setRoundNumber(round);
+        entry.setGroupNumber(1);
+        entry.setPersonIds(List.of(members).stream().map(Person::getId).toList());
+        return entry;
+    }
 }
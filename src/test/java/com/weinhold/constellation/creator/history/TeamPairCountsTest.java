@@ -0,0 +1,49 @@
+package com.weinhold.constellation.creator.history;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TeamPairCountsTest {
+
+    @Test
+    void merge_newPersonJoinsNextYear_countsAddedAndNewcomerAppended() {
+        // Anna-Ben 2, Anna-Carl 1, Ben-Carl 0
+        var firstYear = TeamPairCounts.empty().merge(List.of("Anna", "Ben", "Carl"), new int[] { 2, 1, 0 });
+        // Carl-Anna 3, Carl-Dora 1, Anna-Dora 0
+        var secondYear = firstYear.merge(List.of("Carl", "Anna", "Dora"), new int[] { 3, 1, 0 });
+
+        assertEquals(List.of("Anna", "Ben", "Carl", "Dora"), secondYear.names());
+        // Anna-Ben, Anna-Carl, Anna-Dora, Ben-Carl, Ben-Dora, Carl-Dora
+        assertArrayEquals(new int[] { 2, 4, 0, 0, 0, 1 }, secondYear.counts());
+    }
+
+    @Test
+    void countsOf_otherOrderAndUnknownPerson_countsInOrderOfNewPeople() {
+        var history = TeamPairCounts.empty().merge(List.of("Anna", "Ben", "Carl"), new int[] { 2, 1, 5 });
+
+        // Carl-Ben, Carl-Eve, Ben-Eve
+        assertArrayEquals(new int[] { 5, 0, 0 }, history.countsOf(List.of("Carl", "Ben", "Eve")));
+    }
+
+    @Test
+    void decode_encodedCounts_sameNamesAndSaturatedCounts() {
+        var history = TeamPairCounts.empty().merge(List.of("Anna", "Ben", "Carl"), new int[] { 70_000, 1, 0 });
+
+        var decoded = TeamPairCounts.decode(history.encode());
+
+        assertEquals(history.names(), decoded.names());
+        assertArrayEquals(new int[] { TeamPairCounts.MAX_COUNT, 1, 0 }, decoded.counts());
+        assertThrows(IllegalArgumentException.class, () -> TeamPairCounts.decode(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    void pairs_moreThan65536People_illegalArgumentInsteadOfOverflow() {
+        assertEquals(2_147_450_880, TeamPairCounts.pairs(TeamPairCounts.MAX_PEOPLE));
+        assertThrows(IllegalArgumentException.class, () -> TeamPairCounts.pairs(TeamPairCounts.MAX_PEOPLE + 1));
+    }
+}
@@ -0,0 +1,214 @@
+package com.weinhold.constellation.creator.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class GreedySolverTest {
+
+    @Test
+    void tryOneRestart_tenPeopleInGroupsOf3322_everyRoundIsAPermutation() {
+        var problem = SolverProblem.builder().peopleCount(10).targetSizes(new int[] { 3, 3, 2, 2 }).rounds(12).build();
+
+        var result = new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(1), RestartContext.unbounded());
+
+        assertNotNull(result);
+        var schedule = result.value();
+        assertEquals(12, schedule.roundCount());
+        assertArrayEquals(new int[] { 0, 3, 6, 8, 10 }, schedule.groupOffsets());
+        for (var round : schedule.rounds()) {
+            var sorted = round.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(IntStream.range(0, 10).toArray(), sorted, "Every person must be placed exactly once per round");
+        }
+    }
+
+    @Test
+    void tryOneRestart_pairsWithinWindow_noPairMeetsTwice() {
+        // the second round of 4 people in groups of 2 can always avoid the pairs of the first one
+        var problem = SolverProblem.builder().peopleCount(4).targetSizes(new int[] { 2, 2 }).rounds(2).window(3).build();
+
+        var result = new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(3), RestartContext.unbounded());
+
+        assertNotNull(result);
+        var met = new boolean[4][4];
+        for (var round : result.value().rounds()) {
+            for (var k = 0; k < round.length; k += 2) {
+                var a = Math.min(round[k], round[k + 1]);
+                var b = Math.max(round[k], round[k + 1]);
+                assertFalse(met[a][b], "Pairs must not repeat within the window");
+                met[a][b] = true;
+            }
+        }
+    }
+
+    @Test
+    void tryOneRestart_withLocalSearch_scoreMatchesFullRescore() {
+        var problem = SolverProblem.builder().peopleCount(14).targetSizes(new int[] { 4, 4, 3, 3 }).rounds(20).window(2).build();
+        var properties = new SolverProperties();
+        properties.setLocalSearchMoves(16);
+
+        var result = new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(5), RestartContext.unbounded());
+
+        assertNotNull(result);
+        assertEquals(ScheduleRescore.rescore(result.value(), 14, 2), result.score(), "Incremental swap deltas must add up to the real score");
+    }
+
+    @Test
+    void rounds_sameSeed_sameRoundsAsRestart() {
+        var problem = SolverProblem.builder().peopleCount(14).targetSizes(new int[] { 4, 4, 3, 3 }).rounds(20).window(2).build();
+        var solver = new GreedySolver(problem, new SolverProperties());
+
+        var restart = solver.tryOneRestart(new SplittableRandom(9), RestartContext.unbounded());
+        var rounds = solver.rounds(new SplittableRandom(9));
+
+        assertNotNull(restart);
+        for (var round : restart.value().rounds()) {
+            assertArrayEquals(round, rounds.next(), "Streamed rounds must match the rounds of a whole restart");
+        }
+        assertFalse(rounds.hasNext());
+    }
+
+    @Test
+    void tryOneRestart_offHeapHistoryReused_sameResultAsFreshSolver() {
+        var problem = SolverProblem.builder().peopleCount(14).targetSizes(new int[] { 4, 4, 3, 3 }).rounds(20).window(2).build();
+        var properties = new SolverProperties();
+        properties.setOffHeapThreshold(1);
+        var solver = new GreedySolver(problem, properties);
+
+        solver.tryOneRestart(new SplittableRandom(4), RestartContext.unbounded());
+        var reused = solver.tryOneRestart(new SplittableRandom(9), RestartContext.unbounded());
+        var fresh = new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(9), RestartContext.unbounded());
+
+        assertTrue(solver.offHeap());
+        assertEquals(fresh.score(), reused.score());
+        assertArrayEquals(fresh.value().rounds(), reused.value().rounds(), "A reset history must start empty");
+    }
+
+    @Test
+    void tryOneRestart_pastRounds_pairsOfLastPastRoundAvoided() {
+        var past = new int[][][] { { { 0, 1 }, { 2, 3 } } };
+        var problem = SolverProblem.builder().peopleCount(4).targetSizes(new int[] { 2, 2 }).rounds(1).window(1).pastRounds(past).build();
+
+        var result = new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(1), RestartContext.unbounded());
+
+        assertNotNull(result);
+        var round = result.value().rounds()[0];
+        assertFalse(Math.min(round[0], round[1]) == 0 && Math.max(round[0], round[1]) == 1, "0 and 1 just met");
+        assertFalse(Math.min(round[0], round[1]) == 2 && Math.max(round[0], round[1]) == 3, "2 and 3 just met");
+    }
+
+    @Test
+    void tryOneRestart_carriedOverPairCounts_frequentPairsKeptApart() {
+        // 0-1 and 2-3 met ten times in earlier years, all other pairs never
+        var problem = SolverProblem.builder().peopleCount(4).targetSizes(new int[] { 2, 2 }).rounds(1).window(0)
+                                   .pairCounts(new int[] { 10, 0, 0, 0, 0, 10 }).build();
+
+        var result = new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(1), RestartContext.unbounded());
+
+        assertNotNull(result);
+        var pair = Math.min(result.value().rounds()[0][0], result.value().rounds()[0][1]) * 10
+            + Math.max(result.value().rounds()[0][0], result.value().rounds()[0][1]);
+        assertFalse(pair == 1 || pair == 23, "Pairs met most often before must not meet again first");
+    }
+
+    @Test
+    void tryOneRestart_incumbentOutOfReach_restartPruned() {
+        var problem = SolverProblem.builder().peopleCount(10).targetSizes(new int[] { 5, 5 }).rounds(52).window(3).build();
+        var unbeatable = new RestartContext() {
+
+            @Override
+            public boolean abandoned() {
+                return false;
+            }
+
+            @Override
+            public long incumbent() {
+                return 0;
+            }
+        };
+
+        assertNull(new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(1), unbeatable));
+    }
+
+    @Test
+    void lowerBound_fourPeopleInPairsForThreeRounds_perfectRoundRobin() {
+        var problem = SolverProblem.builder().peopleCount(4).targetSizes(new int[] { 2, 2 }).rounds(3).window(3).build();
+
+        // every pair meets exactly once, only the size skew of 2 per group and round remains
+        assertEquals(12_000, new GreedySolver(problem, new SolverProperties()).lowerBound());
+    }
+
+    @Test
+    void tryOneRestart_pairConstraints_forbiddenPairsNeverGrouped() {
+        // 70 people span two words of the bitsets, the keep-apart rule of 10 and 69 ends after round 5
+        var constraints = new ArrayList<PairConstraint>();
+        IntStream.rangeClosed(1, 9).forEach(q -> constraints.add(PairConstraint.never(0, q)));
+        constraints.add(PairConstraint.never(65, 3));
+        constraints.add(new PairConstraint(10, 69, 1, 5));
+        var problem = SolverProblem.builder().peopleCount(70).targetSizes(SolverProblem.balancedSizes(70, 7)).rounds(30).window(3)
+                                   .constraints(constraints).build();
+        var properties = new SolverProperties();
+        properties.setLocalSearchMoves(16);
+
+        var result = new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(9), RestartContext.unbounded());
+
+        assertNotNull(result);
+        var schedule = result.value();
+        for (var r = 0; r < schedule.roundCount(); r++) {
+            var groupOf = new int[70];
+            for (var g = 0; g + 1 < schedule.groupOffsets().length; g++) {
+                for (var k = schedule.groupOffsets()[g]; k < schedule.groupOffsets()[g + 1]; k++) {
+                    groupOf[schedule.rounds()[r][k]] = g;
+                }
+            }
+            for (var constraint : constraints) {
+                if (constraint.appliesTo(r + 1)) {
+                    assertNotEquals(groupOf[constraint.first()], groupOf[constraint.second()],
+                        "Round " + (r + 1) + " groups " + constraint);
+                }
+            }
+        }
+    }
+
+    @Test
+    void tryOneRestart_withAttributes_groupsMixDepartmentsAndScoreMatchesFullRescore() {
+        // 24 people of 4 departments in 6 groups of 4, every group can have one person of each department
+        var departments = IntStream.range(0, 24).map(p -> p % 4).toArray();
+        var seniority = IntStream.range(0, 24).map(p -> p < 20 ? p / 10 : -1).toArray();
+        var attributes = new int[][] { departments, seniority };
+        var problem = SolverProblem.builder().peopleCount(24).targetSizes(SolverProblem.balancedSizes(24, 4)).rounds(10).window(3)
+                                   .attributes(attributes).diversityWeight(50).build();
+        var properties = new SolverProperties();
+        properties.setLocalSearchMoves(16);
+
+        var result = new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(11), RestartContext.unbounded());
+
+        assertNotNull(result);
+        assertEquals(ScheduleRescore.rescore(result.value(), 24, 3, attributes, 50), result.score(),
+            "Value counts of the groups must add up to the real score");
+        var sharedDepartments = 0;
+        for (var round : result.value().rounds()) {
+            for (var k = 0; k < round.length; k += 4) {
+                for (var i = k; i < k + 4; i++) {
+                    for (var j = k; j < i; j++) {
+                        sharedDepartments += departments[round[i]] == departments[round[j]] ? 1 : 0;
+                    }
+                }
+            }
+        }
+        // randomly grouped, about 13 of the 60 pairs of a round share a department, 130 in 10 rounds
+        assertTrue(sharedDepartments < 65, sharedDepartments + " pairs of the same department in 10 rounds");
+    }
+}
@@ -0,0 +1,70 @@
+package com.weinhold.constellation.creator.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RestartEngineTest {
+
+    @Test
+    void findBest_sameSeedDifferentParallelism_sameResult() {
+        var first = engine(1).findBest(64, 7L, (rng, context) -> {
+            var value = rng.nextInt(1000);
+            return new RestartResult<>(value, value % 10);
+        });
+        var second = engine(8).findBest(64, 7L, (rng, context) -> {
+            var value = rng.nextInt(1000);
+            return new RestartResult<>(value, value % 10);
+        });
+
+        assertEquals(first, second, "The best restart must only depend on the master seed");
+    }
+
+    @Test
+    void findBest_allRestartsFail_empty() {
+        var result = engine(2).findBest(10, 7L, (rng, context) -> null);
+
+        assertTrue(result.isEmpty(), "No result expected if every restart fails");
+    }
+
+    @Test
+    void findBest_lowerBoundReached_remainingRestartsSkipped() {
+        var runs = new AtomicInteger();
+        var limits = SearchLimits.builder().restarts(1000).lowerBound(0).build();
+
+        var result = engine(1).findBest(limits, 7L, (rng, context) -> new RestartResult<>(runs.incrementAndGet(), 0));
+
+        assertEquals(1, runs.get(), "An optimal first restart must end the search");
+        assertEquals(1, result.orElseThrow().value());
+    }
+
+    @Test
+    void findBest_timeBudgetSpent_bestResultSoFar() {
+        var limits = SearchLimits.builder().restarts(Integer.MAX_VALUE).timeBudget(Duration.ofMillis(50)).build();
+
+        var runs = new AtomicInteger();
+
+        var result = engine(2).findBest(limits, 7L, (rng, context) -> {
+            var run = runs.incrementAndGet();
+            if (run > 1) {
+                while (!context.abandoned()) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            }
+            return new RestartResult<>(run, 1);
+        });
+
+        assertEquals(1, result.orElseThrow().value(), "The best result found before the budget was spent is expected");
+    }
+
+    private static RestartEngine engine(int parallelism) {
+        var properties = new SolverProperties();
+        properties.setParallelism(parallelism);
+        return new RestartEngine(properties);
+    }
+}
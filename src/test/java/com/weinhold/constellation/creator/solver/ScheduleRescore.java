@@ -0,0 +1,64 @@
+package com.weinhold.constellation.creator.solver;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = PRIVATE)
+public final class ScheduleRescore {
+
+    /**
+     * Scores a schedule from scratch with plain pair matrices, as reference for the incremental scoring of the solvers.
+     */
+    public static long rescore(IndexSchedule schedule, int n, int window) {
+        return rescore(schedule, n, window, new int[0][], 0);
+    }
+
+    /**
+     * Scores a schedule from scratch including the penalty of the attribute values shared within a group.
+     */
+    public static long rescore(IndexSchedule schedule, int n, int window, int[][] attributes, int diversityWeight) {
+        var count = new int[n][n];
+        var lastMet = new int[n][n];
+        var total = 0L;
+        for (var r = 0; r < schedule.roundCount(); r++) {
+            var round = schedule.rounds()[r];
+            for (var g = 0; g < schedule.groupCount(); g++) {
+                for (var i = schedule.groupStart(g); i < schedule.groupEnd(g); i++) {
+                    total += 2L * (i - schedule.groupStart(g)); // size skew while filling the group
+                    for (var j = schedule.groupStart(g); j < i; j++) {
+                        var a = round[i];
+                        var b = round[j];
+                        total += 10L * count[a][b] + (lastMet[a][b] > Math.max(0, r - window) ? 1000 : 0);
+                        for (var values : attributes) {
+                            if (values[a] >= 0 && values[a] == values[b]) {
+                                total += diversityWeight;
+                            }
+                        }
+                    }
+                }
+            }
+            for (var g = 0; g < schedule.groupCount(); g++) {
+                for (var i = schedule.groupStart(g); i < schedule.groupEnd(g); i++) {
+                    for (var j = schedule.groupStart(g); j < i; j++) {
+                        var a = round[i];
+                        var b = round[j];
+                        count[a][b]++;
+                        count[b][a]++;
+                        lastMet[a][b] = r + 1;
+                        lastMet[b][a] = r + 1;
+                    }
+                }
+            }
+        }
+        var min = Integer.MAX_VALUE;
+        var max = Integer.MIN_VALUE;
+        for (var a = 0; a < n; a++) {
+            for (var b = a + 1; b < n; b++) {
+                min = Math.min(min, count[a][b]);
+                max = Math.max(max, count[a][b]);
+            }
+        }
+        return total * 1000 + (max - min);
+    }
+}
@@ -0,0 +1,74 @@
+package com.weinhold.constellation.creator.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the scalar and the vectorized group scoring on typical team sizes. The timing run only logs the times of
+ * both paths and asserts no speedup; it is only enabled with {@code -Dbenchmark=true}, e.g.
+ * {@code mvn test -Dtest=VectorScoringBenchmarkTest -Dbenchmark=true}.
+ */
+@Slf4j
+class VectorScoringBenchmarkTest {
+
+    private static final int[][] SIZES = { { 50, 5 }, { 50, 10 }, { 200, 5 }, { 200, 20 }, { 200, 50 }, { 500, 5 },
+        { 500, 20 }, { 500, 50 } }; // people, groups
+
+    @Test
+    void tryOneRestart_vectorScoring_sameScheduleAsScalar() {
+        var problem = problem(120, 12, 52);
+
+        var scalar = restart(problem, false, 7);
+        var vector = restart(problem, true, 7);
+
+        assertEquals(scalar.score(), vector.score());
+        assertArrayEquals(scalar.value().rounds(), vector.value().rounds());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void tryOneRestart_typicalSizes_timingsLogged() {
+        for (var size : SIZES) {
+            var problem = problem(size[0], size[1], 52);
+            var scalar = time(problem, false);
+            var vector = time(problem, true);
+            log.info("{} people in {} groups: scalar {} ms, vector {} ms, speedup {}", size[0], size[1],
+                     "%.1f".formatted(scalar), "%.1f".formatted(vector), "%.2f".formatted(scalar / vector));
+        }
+    }
+
+    private static double time(SolverProblem problem, boolean vectorScoring) {
+        for (var warmup = 0; warmup < 10; warmup++) {
+            restart(problem, vectorScoring, warmup);
+        }
+        var runs = 20;
+        var start = System.nanoTime();
+        for (var run = 0; run < runs; run++) {
+            restart(problem, vectorScoring, run);
+        }
+        return (System.nanoTime() - start) / 1e6 / runs;
+    }
+
+    private static RestartResult<IndexSchedule> restart(SolverProblem problem, boolean vectorScoring, long seed) {
+        var properties = new SolverProperties();
+        properties.setVectorScoring(vectorScoring);
+        properties.setLocalSearchMoves(0); // only the greedy construction uses the kernel
+        return new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(seed), RestartContext.unbounded());
+    }
+
+    private static SolverProblem problem(int people, int groups, int rounds) {
+        return SolverProblem.builder()
+                            .peopleCount(people)
+                            .targetSizes(SolverProblem.balancedSizes(people, (int) Math.ceil(people / (double) groups)))
+                            .rounds(rounds)
+                            .window(3)
+                            .build();
+    }
+}
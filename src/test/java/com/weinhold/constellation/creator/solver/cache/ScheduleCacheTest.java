@@ -0,0 +1,114 @@
+package com.weinhold.constellation.creator.solver.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ScheduleCacheTest {
+
+    private static final ScheduleShape FOUR_IN_PAIRS = new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, 42L);
+    private static final IndexSchedule SCHEDULE = new IndexSchedule(new int[] { 0, 2, 4 },
+        new int[][] { { 0, 1, 2, 3 }, { 0, 2, 1, 3 } });
+
+    @Test
+    void get_afterPut_hitCounted() {
+        var registry = new SimpleMeterRegistry();
+        var cache = new ScheduleCache(new ScheduleCacheProperties(), registry);
+
+        assertTrue(cache.get(FOUR_IN_PAIRS).isEmpty());
+        cache.put(FOUR_IN_PAIRS, SCHEDULE);
+        var equalShape = new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, 42L);
+
+        assertEquals(SCHEDULE, cache.get(equalShape).orElseThrow());
+        assertEquals(1, registry.get("constellation.schedule.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("constellation.schedule.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_beyondMaxEntries_leastRecentlyUsedEvicted() {
+        var properties = new ScheduleCacheProperties();
+        properties.setMaxEntries(2);
+        var cache = new ScheduleCache(properties, new SimpleMeterRegistry());
+        var unseeded = new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, null);
+        var otherWindow = new ScheduleShape(4, new int[] { 2, 2 }, 2, 1, 42L);
+
+        cache.put(FOUR_IN_PAIRS, SCHEDULE);
+        cache.put(unseeded, SCHEDULE);
+        cache.get(FOUR_IN_PAIRS);
+        cache.put(otherWindow, SCHEDULE);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(unseeded).isEmpty(), "The least recently used schedule must be evicted");
+        assertTrue(cache.get(FOUR_IN_PAIRS).isPresent());
+    }
+
+    @Test
+    void constructor_cacheFileWritten_schedulesRestored(@TempDir Path dir) {
+        var properties = new ScheduleCacheProperties();
+        properties.setFile(dir.resolve("schedules.bin"));
+        new ScheduleCache(properties, new SimpleMeterRegistry()).put(FOUR_IN_PAIRS, SCHEDULE);
+
+        var restored = new ScheduleCache(properties, new SimpleMeterRegistry()).get(FOUR_IN_PAIRS).orElseThrow();
+
+        assertArrayEquals(SCHEDULE.groupOffsets(), restored.groupOffsets());
+        assertArrayEquals(SCHEDULE.rounds(), restored.rounds());
+    }
+
+    @Test
+    void constructor_pinnedSolverWritten_restoredOnlyForSameSolver(@TempDir Path dir) {
+        var properties = new ScheduleCacheProperties();
+        properties.setFile(dir.resolve("schedules.bin"));
+        var pinned = new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, 42L, "greedy/16/8/512");
+        new ScheduleCache(properties, new SimpleMeterRegistry()).put(pinned, SCHEDULE);
+
+        var restored = new ScheduleCache(properties, new SimpleMeterRegistry());
+
+        assertTrue(restored.get(new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, 42L, "greedy/16/8/512")).isPresent());
+        assertTrue(restored.get(FOUR_IN_PAIRS).isEmpty(), "Only a schedule solved the same way may be served");
+        assertTrue(restored.get(new ScheduleShape(4, new int[] { 2, 2 }, 2, 3, 42L, "greedy/3/8/512")).isEmpty());
+    }
+
+    @Test
+    void put_cacheFileWritten_onlyNewEntryAppended(@TempDir Path dir) throws IOException {
+        var properties = new ScheduleCacheProperties();
+        properties.setFile(dir.resolve("schedules.bin"));
+        var cache = new ScheduleCache(properties, new SimpleMeterRegistry());
+        cache.put(FOUR_IN_PAIRS, SCHEDULE);
+        var firstSize = Files.size(properties.getFile());
+
+        cache.put(new ScheduleShape(4, new int[] { 2, 2 }, 2, 1, 42L), SCHEDULE);
+
+        assertEquals(2 * firstSize - Integer.BYTES, Files.size(properties.getFile()), "Only the new entry is written");
+        assertEquals(2, new ScheduleCache(properties, new SimpleMeterRegistry()).size());
+    }
+
+    @Test
+    void constructor_lastEntryCutOff_earlierEntriesRestoredAndFileCompacted(@TempDir Path dir) throws IOException {
+        var properties = new ScheduleCacheProperties();
+        properties.setFile(dir.resolve("schedules.bin"));
+        var cache = new ScheduleCache(properties, new SimpleMeterRegistry());
+        cache.put(FOUR_IN_PAIRS, SCHEDULE);
+        var firstSize = Files.size(properties.getFile());
+        cache.put(new ScheduleShape(4, new int[] { 2, 2 }, 2, 1, 42L), SCHEDULE);
+        var bytes = Files.readAllBytes(properties.getFile());
+        Files.write(properties.getFile(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        var restored = new ScheduleCache(properties, new SimpleMeterRegistry());
+
+        assertEquals(1, restored.size());
+        assertTrue(restored.get(FOUR_IN_PAIRS).isPresent());
+        assertEquals(firstSize, Files.size(properties.getFile()));
+    }
+}
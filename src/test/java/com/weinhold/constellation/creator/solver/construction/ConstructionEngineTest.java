@@ -0,0 +1,68 @@
+package com.weinhold.constellation.creator.solver.construction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.weinhold.constellation.creator.solver.SolverProblem;
+
+class ConstructionEngineTest {
+
+    private final ConstructionEngine engine = new ConstructionEngine();
+
+    @ParameterizedTest
+    @CsvSource({ "8, 2, round robin, 7", "9, 2, round robin, 9", "16, 2, round robin, 15", "25, 5, affine geometry, 6",
+        "16, 4, affine geometry, 5", "27, 3, affine geometry, 13", "49, 7, affine geometry, 8", "64, 8, affine geometry, 9" })
+    void construct_knownDesign_everyPairMeetsOncePerCycle(int people, int groupSize, String name, int cycleLength) {
+        var problem = problem(people, groupSize, 2 * cycleLength, 3);
+
+        var constructed = engine.construct(problem).orElseThrow();
+
+        assertEquals(name, constructed.name());
+        assertEquals(cycleLength, constructed.cycleLength());
+        var schedule = constructed.schedule();
+        assertEquals(2 * cycleLength, schedule.roundCount());
+        var count = new int[people][people];
+        for (var round : schedule.rounds()) {
+            var sorted = round.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(IntStream.range(0, people).toArray(), sorted, "Every person must be placed once per round");
+            for (var g = 0; g < schedule.groupCount(); g++) {
+                for (var i = schedule.groupStart(g); i < schedule.groupEnd(g); i++) {
+                    for (var j = i + 1; j < schedule.groupEnd(g); j++) {
+                        count[round[i]][round[j]]++;
+                        count[round[j]][round[i]]++;
+                    }
+                }
+            }
+        }
+        for (var a = 0; a < people; a++) {
+            for (var b = a + 1; b < people; b++) {
+                assertEquals(2, count[a][b], "Every pair must meet exactly once per cycle");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "12, 3", "24, 4", "36, 6", "18, 2" })
+    void construct_noKnownDesignOrWindowTooLarge_empty(int people, int groupSize) {
+        var window = groupSize == 2 ? people : 3; // round robin cycle of 17 rounds cannot cover a window of 18
+
+        assertTrue(engine.construct(problem(people, groupSize, 12, window)).isEmpty());
+    }
+
+    private static SolverProblem problem(int people, int groupSize, int rounds, int window) {
+        var groups = (people + groupSize - 1) / groupSize;
+        var sizes = new int[groups];
+        for (var g = 0; g < groups; g++) {
+            sizes[g] = people / groups + (g < people % groups ? 1 : 0);
+        }
+        return SolverProblem.builder().peopleCount(people).targetSizes(sizes).rounds(rounds).window(window).build();
+    }
+}
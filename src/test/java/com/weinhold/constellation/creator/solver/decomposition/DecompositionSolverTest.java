@@ -0,0 +1,60 @@
+package com.weinhold.constellation.creator.solver.decomposition;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+
+class DecompositionSolverTest {
+
+    @Test
+    void rounds_600PeopleInBlocksOf100_permutationsMixingBlocksWithoutRepeats() {
+        var problem = SolverProblem.builder().peopleCount(600).targetSizes(SolverProblem.balancedSizes(600, 5)).rounds(12).window(3)
+                                   .seed(7).build();
+        var properties = new SolverProperties();
+        properties.setBlockSize(100);
+
+        var rounds = new ArrayList<int[]>();
+        new DecompositionSolver(problem, properties, new RestartEngine(properties)).rounds().forEachRemaining(rounds::add);
+
+        assertEquals(12, rounds.size());
+        var groupOffsets = IndexSchedule.groupOffsets(problem.getTargetSizes());
+        var meetings = new HashMap<Long, Integer>();
+        var lastMet = new HashMap<Long, Integer>();
+        for (var r = 0; r < rounds.size(); r++) {
+            var round = rounds.get(r);
+            var sorted = round.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(IntStream.range(0, 600).toArray(), sorted, "Every person must be placed exactly once per round");
+            for (var g = 0; g + 1 < groupOffsets.length; g++) {
+                for (var i = groupOffsets[g]; i < groupOffsets[g + 1]; i++) {
+                    for (var j = groupOffsets[g]; j < i; j++) {
+                        var pair = (long) Math.min(round[i], round[j]) * 600 + Math.max(round[i], round[j]);
+                        meetings.merge(pair, 1, Integer::sum);
+                        var previous = lastMet.put(pair, r);
+                        assertTrue(previous == null || r - previous > 3, "Pairs must not repeat within the window");
+                    }
+                }
+            }
+        }
+        // every person meets 48 partners in 12 rounds, the blocks of 100 leave enough of them to hardly ever meet twice
+        assertTrue(meetings.values().stream().filter(count -> count > 1).count() < 10, "Pairs must hardly ever repeat");
+        var blockOfFirstRound = new int[600];
+        for (var k = 0; k < 600; k++) {
+            blockOfFirstRound[rounds.get(0)[k]] = k / 100;
+        }
+        assertTrue(meetings.keySet().stream().anyMatch(pair -> blockOfFirstRound[(int) (pair / 600)] != blockOfFirstRound[(int) (pair % 600)]),
+            "Rovers must meet people of other blocks");
+    }
+}
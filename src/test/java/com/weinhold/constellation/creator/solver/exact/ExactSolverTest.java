@@ -0,0 +1,86 @@
+package com.weinhold.constellation.creator.solver.exact;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.weinhold.constellation.creator.solver.GreedySolver;
+import com.weinhold.constellation.creator.solver.RestartContext;
+import com.weinhold.constellation.creator.solver.ScheduleRescore;
+import com.weinhold.constellation.creator.solver.ScheduleScore;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+
+class ExactSolverTest {
+
+    private static final long NODE_BUDGET = 100_000_000;
+
+    @Test
+    void solve_sixPeopleInPairsForFiveRounds_provesRoundRobinOptimal() {
+        var problem = SolverProblem.builder().peopleCount(6).targetSizes(new int[] { 2, 2, 2 }).rounds(5).window(3).build();
+
+        var solution = new ExactSolver(problem).solve(null, NODE_BUDGET);
+
+        assertTrue(solution.optimal());
+        assertEquals(ScheduleScore.lowerBound(problem), solution.score(), "Every pair meets exactly once");
+        assertEquals(ScheduleRescore.rescore(solution.schedule(), 6, 3), solution.score());
+    }
+
+    @Test
+    void solve_sevenPeopleInGroupsOf43_searchCompletesWithConsistentScore() {
+        var problem = SolverProblem.builder().peopleCount(7).targetSizes(new int[] { 4, 3 }).rounds(4).window(1).build();
+
+        var solution = new ExactSolver(problem).solve(null, NODE_BUDGET);
+
+        assertTrue(solution.optimal(), "The search space of 4 rounds of 7 people must be exhausted within the budget");
+        assertEquals(ScheduleRescore.rescore(solution.schedule(), 7, 1), solution.score());
+        for (var round : solution.schedule().rounds()) {
+            var sorted = round.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(IntStream.range(0, 7).toArray(), sorted, "Every person must be placed exactly once per round");
+        }
+    }
+
+    @Test
+    void solve_greedyIncumbent_neverWorse() {
+        var problem = SolverProblem.builder().peopleCount(12).targetSizes(new int[] { 3, 3, 3, 3 }).rounds(12).window(3).build();
+        var greedy = new GreedySolver(problem, new SolverProperties()).tryOneRestart(new SplittableRandom(7), RestartContext.unbounded());
+        assertNotNull(greedy);
+
+        var solution = new ExactSolver(problem).solve(greedy, 1_000_000);
+
+        assertTrue(solution.score() <= greedy.score());
+        assertEquals(ScheduleRescore.rescore(solution.schedule(), 12, 3), solution.score());
+        assertArrayEquals(solution.schedule().rounds(), new ExactSolver(problem).solve(greedy, 1_000_000).schedule().rounds(),
+            "A node budget is not bound to the clock");
+    }
+
+    @Test
+    void solve_sixteenPeopleInFoursMonthlyForAYear_provesOptimalWithinDefaultBudget() {
+        var problem = SolverProblem.builder().peopleCount(16).targetSizes(new int[] { 4, 4, 4, 4 }).rounds(12).window(3).build();
+        var properties = new SolverProperties();
+        var greedy = new GreedySolver(problem, properties).tryOneRestart(new SplittableRandom(7), RestartContext.unbounded());
+
+        var solution = new ExactSolver(problem).solve(greedy, properties.getExactNodeBudget());
+
+        assertTrue(solution.optimal());
+        assertEquals(ScheduleScore.lowerBound(problem), solution.score(), "No pair meets twice within the window");
+        assertTrue(solution.score() < greedy.score());
+        assertEquals(ScheduleRescore.rescore(solution.schedule(), 16, 3), solution.score());
+    }
+
+    @Test
+    void constructor_moreThan64People_throwsIllegalArgumentException() {
+        var problem = SolverProblem.builder().peopleCount(65).targetSizes(new int[] { 33, 32 }).rounds(1).build();
+
+        assertThrows(IllegalArgumentException.class, () -> new ExactSolver(problem));
+    }
+}
@@ -0,0 +1,37 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class PairCountHistogramTest {
+
+    @Test
+    void increment_randomMeetings_figuresMatchFullScan() {
+        var people = 12;
+        var counts = new int[people * (people - 1) / 2];
+        var histogram = new PairCountHistogram(people);
+        var rng = new SplittableRandom(3);
+
+        for (var meeting = 0; meeting < 400; meeting++) {
+            var slot = rng.nextInt(counts.length);
+            if (meeting % 50 == 0) {
+                histogram.add(counts[slot], 5);
+                counts[slot] += 5;
+            } else {
+                histogram.increment(counts[slot]++);
+            }
+
+            var mean = Arrays.stream(counts).average().orElseThrow();
+            var variance = Arrays.stream(counts).mapToDouble(c -> (c - mean) * (c - mean)).sum() / counts.length;
+            assertEquals(Arrays.stream(counts).min().orElseThrow(), histogram.min());
+            assertEquals(Arrays.stream(counts).max().orElseThrow(), histogram.max());
+            assertEquals(mean, histogram.mean(), 1e-9);
+            assertEquals(variance, histogram.variance(), 1e-9);
+            assertEquals(Arrays.stream(counts).filter(c -> c == 0).count(), histogram.neverMet());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.weinhold.constellation.creator.solver.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PairHistoryTest {
+
+    @Test
+    void allocate_monthlyWeeklyDailyAndOffHeap_mostCompactLayout() {
+        assertInstanceOf(BytePairHistory.class, PairHistory.allocate(10, 53, false));
+        assertInstanceOf(ShortPairHistory.class, PairHistory.allocate(10, 366, false));
+        assertInstanceOf(OffHeapPairHistory.class, PairHistory.allocate(10, 366, true));
+    }
+
+    @Test
+    void slot_allPairs_uniqueSlotsInPackedTriangle() {
+        var history = PairHistory.allocate(7, 12, false);
+        var slots = new HashSet<Long>();
+        for (var a = 0; a < 7; a++) {
+            for (var b = a + 1; b < 7; b++) {
+                var slot = history.slot(a, b);
+                assertEquals(slot, history.slot(b, a), "Slot must not depend on the order of the pair");
+                slots.add(slot);
+            }
+        }
+        assertEquals(21, slots.size());
+        assertEquals(0L, slots.stream().mapToLong(Long::longValue).min().orElseThrow());
+        assertEquals(20L, slots.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    @Test
+    void meet_heapAndOffHeap_countAndLastRoundRecorded() {
+        for (var history : new PairHistory[] { PairHistory.allocate(5, 12, false), PairHistory.allocate(5, 366, false),
+            PairHistory.allocate(5, 366, true) }) {
+            var slot = history.slot(4, 1);
+            history.meet(slot, 3);
+            history.meet(slot, 300);
+
+            assertEquals(2, history.count(slot));
+            assertEquals(300, history.lastMet(slot));
+            assertEquals(0, history.count(history.slot(0, 1)));
+            assertEquals(0, history.lastMet(history.slot(0, 1)));
+            assertEquals(PairHistory.estimateBytes(5, history instanceof BytePairHistory ? 12 : 366,
+                history instanceof OffHeapPairHistory), history.memoryBytes());
+        }
+    }
+
+    @Test
+    void reset_everyLayout_allMeetingsForgotten() {
+        for (var history : new PairHistory[] { PairHistory.allocate(5, 12, false), PairHistory.allocate(5, 366, false),
+            PairHistory.allocate(5, 366, true), new DensePairHistory(5) }) {
+            var slot = history.slot(4, 1);
+            history.meet(slot, 3);
+            history.add(history.slot(0, 2), 7);
+
+            history.reset();
+
+            assertEquals(0, history.count(slot));
+            assertEquals(0, history.lastMet(slot));
+            assertEquals(0, history.count(history.slot(0, 2)));
+        }
+    }
+
+    @Test
+    void pairCost_denseAndPacked_sameCostForEveryGroup() {
+        var packed = PairHistory.allocate(40, 52, false);
+        var dense = new DensePairHistory(40);
+        var rng = new SplittableRandom(11);
+        for (var round = 1; round <= 30; round++) {
+            for (var m = 0; m < 60; m++) {
+                var a = rng.nextInt(40);
+                var b = (a + 1 + rng.nextInt(39)) % 40;
+                packed.meet(packed.slot(a, b), round);
+                dense.meet(dense.slot(b, a), round);
+            }
+        }
+        var members = IntStream.range(0, 40).toArray();
+
+        for (var person = 0; person < 40; person++) {
+            for (var to = 0; to <= 40; to += 7) {
+                // members before the person only, the pair with itself is never scored
+                var end = Math.min(to, person);
+                assertEquals(packed.pairCost(person, members, 0, end, 27, 10, 1000),
+                    dense.pairCost(person, members, 0, end, 27, 10, 1000));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.weinhold.constellation.creator.solver.library;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.weinhold.constellation.creator.solver.IndexSchedule;
+import com.weinhold.constellation.creator.solver.cache.ScheduleShape;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ScheduleLibraryTest {
+
+    @Test
+    void shapes_tenPeopleInTwoToThreeGroups_oneShapePerGroupCountAndRounds() {
+        var shapes = ScheduleLibraryBuilder.shapes(new int[] { 10, 10 }, new int[] { 2, 3 }, new int[] { 12, 52 }, 3);
+
+        assertEquals(4, shapes.size());
+        assertArrayEquals(new int[] { 4, 3, 3 }, shapes.get(0).targetSizes());
+        assertArrayEquals(new int[] { 5, 5 }, shapes.get(2).targetSizes());
+    }
+
+    @Test
+    void get_libraryWritten_schedulesDecodedFromMapping(@TempDir Path dir) throws IOException {
+        var small = new ScheduleShape(5, new int[] { 3, 2 }, 3, 3, null);
+        var large = new ScheduleShape(300, new int[] { 150, 150 }, 2, 3, null); // indices above 255 need two bytes
+        var file = dir.resolve("schedules.lib");
+        ScheduleLibraryBuilder.write(file, List.of(small, large), ScheduleLibraryTest::reversed);
+        var properties = new ScheduleLibraryProperties();
+        properties.setFile(file);
+
+        var library = new ScheduleLibrary(properties, new SimpleMeterRegistry());
+
+        assertEquals(2, library.size());
+        assertArrayEquals(reversed(small).rounds(), library.get(small).orElseThrow().rounds());
+        assertArrayEquals(reversed(large).rounds(), library.get(large).orElseThrow().rounds());
+        assertTrue(library.get(new ScheduleShape(5, new int[] { 3, 2 }, 3, 3, 42L)).isEmpty(),
+            "Seeded requests must be solved for their seed");
+        assertTrue(library.get(new ScheduleShape(5, new int[] { 3, 2 }, 4, 3, null)).isEmpty());
+    }
+
+    @Test
+    void constructor_notALibraryFile_emptyLibrary(@TempDir Path dir) throws IOException {
+        var properties = new ScheduleLibraryProperties();
+        properties.setFile(Files.writeString(dir.resolve("schedules.lib"), "no library"));
+
+        assertEquals(0, new ScheduleLibrary(properties, new SimpleMeterRegistry()).size());
+    }
+
+    private static IndexSchedule reversed(ScheduleShape shape) {
+        var rounds = new int[shape.rounds()][];
+        for (var r = 0; r < rounds.length; r++) {
+            var shift = r;
+            rounds[r] = IntStream.range(0, shape.peopleCount()).map(k -> (shape.peopleCount() - 1 - k + shift) % shape.peopleCount())
+                                 .toArray();
+        }
+        return new IndexSchedule(IndexSchedule.groupOffsets(shape.targetSizes()), rounds);
+    }
+}
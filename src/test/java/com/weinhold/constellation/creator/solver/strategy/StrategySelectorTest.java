@@ -0,0 +1,85 @@
+package com.weinhold.constellation.creator.solver.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.weinhold.constellation.creator.solver.RestartEngine;
+import com.weinhold.constellation.creator.solver.SolverProblem;
+import com.weinhold.constellation.creator.solver.SolverProperties;
+import com.weinhold.constellation.creator.solver.construction.ConstructionEngine;
+
+/**
+ * The calibration run of the cost model is only enabled with {@code -Dbenchmark=true}, e.g.
+ * {@code mvn test -Dtest=StrategySelectorTest -Dbenchmark=true}.
+ */
+class StrategySelectorTest {
+
+    @Test
+    void select_problemsOfGrowingSize_bestStrategyPredictedInTime() {
+        var properties = new SolverProperties();
+        properties.setParallelism(1);
+        var selector = selector(properties);
+
+        assertEquals(ConstructionStrategy.NAME, selector.select(problem(8, 2, 7), null).strategy().name());
+        assertEquals(GreedyStrategy.NAME, selector.select(problem(10, 3, 12), null).strategy().name());
+        assertEquals(GreedyStrategy.NAME, selector.select(problem(200, 5, 52), null).strategy().name());
+        var large = selector.select(problem(6000, 5, 52), null);
+        assertEquals(DecompositionStrategy.NAME, large.strategy().name());
+        assertTrue(large.predicted().compareTo(properties.getMaxTimeBudget()) <= 0, "Predicted " + large.predicted());
+    }
+
+    @Test
+    void force_unknownOrUnsupportedStrategy_illegalArgument() {
+        var selector = selector(new SolverProperties());
+
+        assertEquals(GreedyStrategy.NAME, selector.force(GreedyStrategy.NAME, problem(8, 2, 7), null).strategy().name());
+        assertEquals(ExactStrategy.NAME, selector.force(ExactStrategy.NAME, problem(10, 3, 12), null).strategy().name());
+        assertThrows(IllegalArgumentException.class, () -> selector.force("annealing", problem(8, 2, 7), null));
+        assertThrows(IllegalArgumentException.class, () -> selector.force(DecompositionStrategy.NAME, problem(8, 2, 7), null));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void solveRounds_typicalSizes_predictionMatchesRuntime() {
+        var properties = new SolverProperties();
+        properties.setRestarts(1);
+        properties.setDecompositionThreshold(1);
+        var selector = selector(properties);
+        selector.force(GreedyStrategy.NAME, problem(500, 5, 52), null).strategy().solveRounds(problem(500, 5, 52), null)
+                .forEachRemaining(round -> {}); // warm-up
+        System.out.printf("%14s %8s %8s %14s %14s%n", "strategy", "people", "rounds", "predicted ms", "actual ms");
+        for (var size : new int[][] { { 1000, 52 }, { 2000, 52 }, { 5000, 52 }, { 10000, 52 } }) {
+            var problem = problem(size[0], 5, size[1]);
+            for (var name : new String[] { GreedyStrategy.NAME, DecompositionStrategy.NAME }) {
+                if (name.equals(GreedyStrategy.NAME) && size[0] > 2000) {
+                    continue; // minutes per restart
+                }
+                var choice = selector.force(name, problem, null);
+                var start = System.nanoTime();
+                choice.strategy().solveRounds(problem, null).forEachRemaining(round -> {});
+                var actual = Duration.ofNanos(System.nanoTime() - start);
+                System.out.printf("%14s %8d %8d %14d %14d%n", name, size[0], size[1], choice.predicted().toMillis(),
+                    actual.toMillis());
+            }
+        }
+    }
+
+    private static StrategySelector selector(SolverProperties properties) {
+        return StrategySelector.defaults(new RestartEngine(properties), new ConstructionEngine(), properties);
+    }
+
+    private static SolverProblem problem(int people, int groupSize, int rounds) {
+        return SolverProblem.builder()
+                            .peopleCount(people)
+                            .targetSizes(SolverProblem.balancedSizes(people, groupSize))
+                            .rounds(rounds)
+                            .window(3)
+                            .build();
+    }
+}
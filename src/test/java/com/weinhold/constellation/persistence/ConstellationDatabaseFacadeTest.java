@@ -0,0 +1,158 @@
+package com.weinhold.constellation.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.weinhold.constellation.persistence.model.ConstellationEntry;
+import com.weinhold.constellation.persistence.model.PackedRound;
+import com.weinhold.constellation.persistence.model.Person;
+import com.weinhold.constellation.persistence.repository.ConstellationRepository;
+import com.weinhold.constellation.persistence.repository.PersonRepository;
+
+/**
+ * The insert benchmark needs a migrated PostgreSQL database and is only enabled with its URL, e.g.
+ * {@code mvn test -Dtest=ConstellationDatabaseFacadeTest -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/postgres
+ * -Dbenchmark.jdbc-user=postgres -Dbenchmark.jdbc-password=postgres}.
+ */
+class ConstellationDatabaseFacadeTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveConstellationEntries_threeRoundsOfTwoGroups_oneRowPerRound() {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var people = people(UUID.randomUUID(), 10);
+        var entries = entries(people, 3, 2);
+        var facade = new ConstellationDatabaseFacade(mock(ConstellationRepository.class), jdbcTemplate);
+
+        facade.saveConstellationEntries(entries, people);
+
+        ArgumentCaptor<List<PackedRound>> rounds = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rounds.capture(), eq(1000), any());
+        assertEquals(3, rounds.getValue().size());
+        var second = rounds.getValue().get(1);
+        assertEquals(2, second.roundNumber());
+        assertArrayEquals(new int[] { 5, 5 }, second.groupSizes());
+        assertArrayEquals(IntStream.range(0, 10).toArray(), ConstellationDatabaseFacade.decode(second.members(), 10));
+    }
+
+    @Test
+    void decode_encodedOrdinals_sameOrdinalsInTwoOrFourBytes() {
+        var small = new int[] { 0, 7, 65535, 300 };
+        var large = new int[] { 0, 7, 65536, 300 };
+
+        var smallMembers = ConstellationDatabaseFacade.encode(small);
+        var largeMembers = ConstellationDatabaseFacade.encode(large);
+
+        assertEquals(small.length * Short.BYTES, smallMembers.length);
+        assertEquals(large.length * Integer.BYTES, largeMembers.length);
+        assertArrayEquals(small, ConstellationDatabaseFacade.decode(smallMembers, small.length));
+        assertArrayEquals(large, ConstellationDatabaseFacade.decode(largeMembers, large.length));
+    }
+
+    @Test
+    void deleteEntriesOfConstellationFromRound_anyPlan_singleStatementWithoutLoadingRounds() {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var constellationId = UUID.randomUUID();
+        var facade = new ConstellationDatabaseFacade(mock(ConstellationRepository.class), jdbcTemplate);
+
+        facade.deleteEntriesOfConstellationFromRound(constellationId, 3);
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM"), eq(constellationId), eq(3));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+    void savePeopleAndEntries_postgres_rowsPerSecond() {
+        var dataSource = new DriverManagerDataSource(withBatchedInserts(System.getProperty("benchmark.jdbc-url")),
+            System.getProperty("benchmark.jdbc-user", "postgres"), System.getProperty("benchmark.jdbc-password", "postgres"));
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        var transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        var personFacade = new PersonDatabaseFacade(mock(PersonRepository.class), jdbcTemplate);
+        var constellations = new ConstellationDatabaseFacade(mock(ConstellationRepository.class), jdbcTemplate);
+
+        System.out.printf("%10s %10s %14s %14s %14s%n", "people", "entries", "people rows/s", "entries/s", "bytes/entry");
+        for (var size : new int[] { 1000, 10000, 100000 }) {
+            var constellationId = UUID.randomUUID();
+            var names = IntStream.range(0, size).mapToObj(i -> "Person " + i).toList();
+            try {
+                var start = System.nanoTime();
+                var people = transaction.execute(status -> personFacade.savePeople(constellationId, names, 0));
+                var peopleNanos = System.nanoTime() - start;
+                var entries = entries(people, 52, size / 5); // 52 rounds in groups of five
+                start = System.nanoTime();
+                transaction.executeWithoutResult(status -> constellations.saveConstellationEntries(entries, people));
+                var entryNanos = System.nanoTime() - start;
+                var bytes = jdbcTemplate.queryForObject("SELECT sum(pg_column_size(r.*)) "
+                    + "FROM groupchat_constellation_creator.constellation_rounds r WHERE constellation_id = ?", Long.class,
+                    constellationId);
+                System.out.printf("%10d %10d %14.0f %14.0f %14.1f%n", size, entries.size(), size * 1e9 / peopleNanos,
+                    entries.size() * 1e9 / entryNanos, (double) bytes / entries.size());
+                assertEquals(entries, constellations.findAllEntriesOfConstellation(constellationId, people));
+            } finally {
+                constellations.deleteAllEntriesOfConstellation(constellationId);
+                jdbcTemplate.update("DELETE FROM groupchat_constellation_creator.people WHERE constellation_id = ?",
+                    constellationId);
+            }
+        }
+    }
+
+    /**
+     * @return the URL with the driver rewriting batches into multi-row inserts, like the datasource of the application
+     */
+    private static String withBatchedInserts(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+
+    private static List<Person> people(UUID constellationId, int count) {
+        var people = new ArrayList<Person>(count);
+        for (var ordinal = 0; ordinal < count; ordinal++) {
+            var person = new Person();
+            person.setId(UUID.randomUUID());
+            person.setConstellationId(constellationId);
+            person.setOrdinal(ordinal);
+            people.add(person);
+        }
+        return people;
+    }
+
+    /**
+     * @return the rounds of the people split into consecutive groups of equal size
+     */
+    private static List<ConstellationEntry> entries(List<Person> people, int rounds, int groups) {
+        var entries = new ArrayList<ConstellationEntry>(rounds * groups);
+        var groupSize = people.size() / groups;
+        for (var round = 1; round <= rounds; round++) {
+            for (var group = 0; group < groups; group++) {
+                entries.add(ConstellationEntry.builder()
+                                              .constellationId(people.getFirst().getConstellationId())
+                                              .roundNumber(round)
+                                              .groupNumber(group + 1)
+                                              .personIds(people.subList(group * groupSize, (group + 1) * groupSize)
+                                                               .stream().map(Person::getId).toList())
+                                              .build());
+            }
+        }
+        return entries;
+    }
+}